@@ -0,0 +1,44 @@
+package dfa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "CHAIN", "COUNTER", "FIBONACCI_CYCLE"})
+    public DFAFamilies.Family family;
+
+    private DFAFamilies.Spec spec;
+
+    @Setup
+    public void setup(){
+        this.spec = new DFAFamilies.Spec(this.family, this.size, 385);
+    }
+
+    /**
+     * Builds the DFA through the list constructor, the way the testers do
+     */
+    @Benchmark
+    public DFA constructor(){
+        return this.spec.construct();
+    }
+
+    /**
+     * Builds the DFA one state and transition at a time through DFA.Builder
+     */
+    @Benchmark
+    public DFA builder(){
+        return this.spec.build();
+    }
+
+}
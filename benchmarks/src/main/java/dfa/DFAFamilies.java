@@ -0,0 +1,119 @@
+package dfa;
+
+import java.util.*;
+
+public class DFAFamilies {
+
+    /**
+     * The kinds of complete binary DFAs the benchmarks are run on
+     * RANDOM: every transition goes to a random state, and about half of the states accept
+     * CHAIN: state i goes to state i + 1 on both symbols and only the last state accepts, so
+     * telling the states apart takes n rounds of k-equivalence
+     * COUNTER: counts the 1s modulo n, and accepts when the count is 0
+     * FIBONACCI_CYCLE: a cycle on 0 and a self loop on 1, where state i accepts if the i-th letter
+     * of the Fibonacci word is 1. Cyclic automata over Sturmian words like this one are the known
+     * worst case for Hopcroft's algorithm
+     */
+    public enum Family { RANDOM, CHAIN, COUNTER, FIBONACCI_CYCLE }
+
+    /**
+     * Generates the transitions of a DFA from a family as int arrays, so that a benchmark can
+     * build the DFA many times without measuring the generation
+     */
+    public static final class Spec {
+        public final String[] names;
+        public final int[] zero;
+        public final int[] one;
+        public final boolean[] accept;
+
+        /**
+         * Generates a DFA from a family
+         * @param family the family
+         * @param size the number of states
+         * @param seed the seed for the RANDOM family
+         */
+        public Spec(Family family, int size, long seed){
+            this.names = new String[size];
+            this.zero = new int[size];
+            this.one = new int[size];
+            this.accept = new boolean[size];
+            Random random = new Random(seed);
+            boolean[] fibonacci = family == Family.FIBONACCI_CYCLE ? fibonacciWord(size) : null;
+            for(int i = 0; i < size; i++){
+                this.names[i] = "Q" + i;
+                switch(family){
+                    case RANDOM:
+                        this.zero[i] = random.nextInt(size);
+                        this.one[i] = random.nextInt(size);
+                        this.accept[i] = random.nextBoolean();
+                        break;
+                    case CHAIN:
+                        this.zero[i] = Math.min(i + 1, size - 1);
+                        this.one[i] = Math.min(i + 1, size - 1);
+                        this.accept[i] = i == size - 1;
+                        break;
+                    case COUNTER:
+                        this.zero[i] = i;
+                        this.one[i] = (i + 1) % size;
+                        this.accept[i] = i == 0;
+                        break;
+                    case FIBONACCI_CYCLE:
+                        this.zero[i] = (i + 1) % size;
+                        this.one[i] = i;
+                        this.accept[i] = fibonacci[i];
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Builds the DFA with the Builder
+         * @return the DFA
+         */
+        public DFA build(){
+            DFA.Builder builder = new DFA.Builder();
+            for(String name: this.names) builder.state(name);
+            builder.start(this.names[0]);
+            for(int i = 0; i < this.names.length; i++){
+                if(this.accept[i]) builder.accept(this.names[i]);
+                builder.transition(this.names[i], this.names[this.zero[i]], 0);
+                builder.transition(this.names[i], this.names[this.one[i]], 1);
+            }
+            return builder.build();
+        }
+
+        /**
+         * Builds the DFA with the list constructor
+         * @return the DFA
+         */
+        public DFA construct(){
+            List<String> states = Arrays.asList(this.names);
+            List<String> accepts = new ArrayList<String>();
+            List<Transition> transitions = new ArrayList<Transition>(this.names.length * 2);
+            for(int i = 0; i < this.names.length; i++){
+                if(this.accept[i]) accepts.add(this.names[i]);
+                transitions.add(new Transition(this.names[i], this.names[this.zero[i]], 0));
+                transitions.add(new Transition(this.names[i], this.names[this.one[i]], 1));
+            }
+            return new DFA(states, this.names[0], accepts, transitions);
+        }
+    }
+
+    /**
+     * The first letters of the Fibonacci word, made by repeatedly replacing 0 with 01 and 1 with 0
+     * @param length the number of letters
+     * @return true where the letter is 1
+     */
+    private static boolean[] fibonacciWord(int length){
+        StringBuilder word = new StringBuilder("0");
+        while(word.length() < length){
+            StringBuilder next = new StringBuilder(word.length() * 2);
+            for(int i = 0; i < word.length(); i++) next.append(word.charAt(i) == '0' ? "01" : "0");
+            word = next;
+        }
+        boolean[] letters = new boolean[length];
+        for(int i = 0; i < length; i++) letters[i] = word.charAt(i) == '1';
+        return letters;
+    }
+
+}
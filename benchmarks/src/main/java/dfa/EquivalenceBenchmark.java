@@ -0,0 +1,49 @@
+package dfa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EquivalenceBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "CHAIN", "COUNTER", "FIBONACCI_CYCLE"})
+    public DFAFamilies.Family family;
+
+    private DFA dfa;
+    private DFA copy;
+    private DFA minimized;
+
+    @Setup
+    public void setup(){
+        DFAFamilies.Spec spec = new DFAFamilies.Spec(this.family, this.size, 385);
+        this.dfa = spec.build();
+        this.copy = spec.construct();
+        this.minimized = this.dfa.minimizeDFA(this.dfa);
+    }
+
+    /**
+     * Compares two separately built copies of the same DFA
+     */
+    @Benchmark
+    public boolean equals(){
+        return this.dfa.equals(this.copy);
+    }
+
+    /**
+     * Checks that the DFA accepts the same language as its minimized DFA with Hopcroft and Karp's algorithm
+     */
+    @Benchmark
+    public boolean isEquivalent(){
+        return this.dfa.isEquivalent(this.minimized);
+    }
+
+}
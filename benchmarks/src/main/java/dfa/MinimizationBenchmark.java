@@ -0,0 +1,36 @@
+package dfa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinimizationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "CHAIN", "COUNTER", "FIBONACCI_CYCLE"})
+    public DFAFamilies.Family family;
+
+    private DFA dfa;
+
+    @Setup
+    public void setup(){
+        this.dfa = new DFAFamilies.Spec(this.family, this.size, 385).build();
+    }
+
+    /**
+     * Minimizes the DFA, including building the minimized DFA
+     */
+    @Benchmark
+    public DFA minimizeDFA(){
+        return this.dfa.minimizeDFA(this.dfa);
+    }
+
+}
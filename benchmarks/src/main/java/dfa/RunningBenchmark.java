@@ -0,0 +1,75 @@
+package dfa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RunningBenchmark {
+
+    @Param({"8", "64", "4096"})
+    public int size;
+
+    @Param({"32", "256"})
+    public int maxBits;
+
+    // The number of inputs run by every call
+    private static final int INPUTS = 1 << 14;
+
+    private DFA dfa;
+    private StrideTable table;
+    private VectorRunner runner;
+    private byte[][] inputs;
+    private long[] bitLengths;
+
+    @Setup
+    public void setup(){
+        DFA random = new DFAFamilies.Spec(DFAFamilies.Family.RANDOM, this.size, 385).build();
+        this.dfa = random.minimizeDFA(random);
+        this.table = new StrideTable(this.dfa);
+        this.runner = new VectorRunner(this.dfa);
+        Random lengths = new Random(23);
+        this.inputs = new byte[INPUTS][];
+        this.bitLengths = new long[INPUTS];
+        for(int i = 0; i < INPUTS; i++){
+            this.inputs[i] = new byte[(this.maxBits + 7) / 8];
+            lengths.nextBytes(this.inputs[i]);
+            this.bitLengths[i] = this.maxBits / 2 + lengths.nextInt(this.maxBits / 2 + 1);
+        }
+    }
+
+    /**
+     * Walks every input on its own through the scalar run loop
+     */
+    @Benchmark
+    public BitSet scalar(){
+        return this.dfa.acceptsAll(this.inputs, this.bitLengths);
+    }
+
+    /**
+     * Walks every input on its own a byte at a time through the stride table
+     */
+    @Benchmark
+    public BitSet strided(){
+        BitSet results = new BitSet(this.inputs.length);
+        for(int i = 0; i < this.inputs.length; i++){
+            if(this.table.accepts(this.inputs[i], this.bitLengths[i])) results.set(i);
+        }
+        return results;
+    }
+
+    /**
+     * Steps a vector of inputs at a time, one input per lane
+     */
+    @Benchmark
+    public BitSet vector(){
+        return this.runner.acceptsAll(this.inputs, this.bitLengths);
+    }
+
+}
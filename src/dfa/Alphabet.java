@@ -0,0 +1,102 @@
+package dfa;
+
+import java.util.*;
+
+public final class Alphabet {
+    public static final Alphabet BINARY = range(2);
+    public static final Alphabet BYTES = range(256);
+
+    public final int size;
+    private final int[] symbols;
+    private final int[] columns;
+
+    /**
+     * The alphabet of a DFA, as a table that interns every symbol to a column 0..size-1 of the
+     * transition table. Symbols are non-negative ints, so bytes, characters and token ids can all
+     * be used directly, and looking a symbol up is one array access
+     * @param symbols the symbols, in column order
+     */
+    private Alphabet(int[] symbols){
+        if(symbols.length == 0) throw new IllegalArgumentException("An alphabet must have at least one symbol");
+        int max = 0;
+        for(int symbol: symbols){
+            if(symbol < 0) throw new IllegalArgumentException("The symbols of an alphabet cannot be negative");
+            max = Math.max(max, symbol);
+        }
+        this.size = symbols.length;
+        this.symbols = symbols;
+        this.columns = new int[max + 1];
+        Arrays.fill(this.columns, -1);
+        for(int column = 0; column < symbols.length; column++){
+            if(this.columns[symbols[column]] >= 0) throw new IllegalArgumentException("There is a duplicate symbol in the given alphabet");
+            this.columns[symbols[column]] = column;
+        }
+    }
+
+    /**
+     * Makes an alphabet of the given symbols, interned to columns in the order they are given
+     * @param symbols the symbols
+     * @return the alphabet
+     */
+    public static Alphabet of(int... symbols){
+        return new Alphabet(symbols.clone());
+    }
+
+    /**
+     * Makes the alphabet of the symbols 0..size-1, where every symbol is its own column
+     * @param size the number of symbols
+     * @return the alphabet
+     */
+    public static Alphabet range(int size){
+        int[] symbols = new int[size];
+        for(int i = 0; i < size; i++) symbols[i] = i;
+        return new Alphabet(symbols);
+    }
+
+    /**
+     * Finds the column of a symbol
+     * @param symbol the symbol
+     * @return the column of the symbol, or -1 if it is not in 'this' alphabet
+     */
+    public int column(int symbol){
+        return symbol >= 0 && symbol < this.columns.length ? this.columns[symbol] : -1;
+    }
+
+    /**
+     * Finds the symbol of a column
+     * @param column the column
+     * @return the symbol
+     */
+    public int symbol(int column){
+        return this.symbols[column];
+    }
+
+    /**
+     * Tests whether 'this' is the binary alphabet 0, 1, which the bit-packed run loops are written for
+     * @return true if the alphabet is 0 and 1 in that order, false otherwise
+     */
+    public boolean isBinary(){
+        return this.size == 2 && this.symbols[0] == 0 && this.symbols[1] == 1;
+    }
+
+    /**
+     * Tests whether 'this' alphabet has the same symbols in the same columns as another one
+     * @param other the other object
+     * @return true if the alphabets are the same, false otherwise
+     */
+    @Override
+    public boolean equals(Object other){
+        return other instanceof Alphabet && Arrays.equals(this.symbols, ((Alphabet) other).symbols);
+    }
+
+    @Override
+    public int hashCode(){
+        return Arrays.hashCode(this.symbols);
+    }
+
+    @Override
+    public String toString(){
+        return Arrays.toString(this.symbols);
+    }
+
+}
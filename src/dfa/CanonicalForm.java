@@ -0,0 +1,269 @@
+package dfa;
+
+import java.util.*;
+
+public class CanonicalForm {
+    private static final long SEED_LOW = 0x243F6A8885A308D3L;
+    private static final long SEED_HIGH = 0x13198A2E03707344L;
+
+    // The primes of xxHash64, which the high half of a fingerprint is built from
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    /**
+     * Numbers the states of an int-indexed automaton in breadth first order from the start state,
+     * following the symbols in order 0, 1... Two automata that only differ in how their states are
+     * named or numbered get the same numbering, and unreachable states get none
+     * @param stateCount the number of states
+     * @param alphabetSize the number of symbols
+     * @param delta the flat transition table
+     * @param start the start state
+     * @return the canonical number of every state, or -1 for states that cannot be reached.
+     * The reachable states are numbered 0, 1, 2... so the start state is always 0
+     */
+    public static int[] order(int stateCount, int alphabetSize, int[] delta, int start){
+        int[] order = new int[stateCount];
+        Arrays.fill(order, -1);
+        int[] queue = new int[stateCount];
+        int tail = 0;
+        order[start] = tail;
+        queue[tail++] = start;
+        for(int head = 0; head < tail; head++){
+            int q = queue[head];
+            for(int a = 0; a < alphabetSize; a++){
+                int next = delta[q * alphabetSize + a];
+                if(order[next] < 0){
+                    order[next] = tail;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Builds the canonical form of a DFA: only the reachable states, numbered in breadth first
+     * order from the start state and named Q0, Q1... with Q0 as the start state. Two DFAs have equal
+     * canonical forms exactly when their reachable parts are the same up to the names of the states,
+     * so the canonical form of a minimized DFA only depends on its language
+     * @param dfa the DFA to canonicalize
+     * @return the canonical DFA
+     */
+    public static DFA canonicalize(DFA dfa){
+        final int k = dfa.alphabet.size;
+        int[] order = order(dfa.stateCount(), k, dfa.delta, dfa.startId);
+        int count = 0;
+        int[] byOrder = new int[dfa.stateCount()];
+        for(int q = 0; q < order.length; q++){
+            if(order[q] >= 0){
+                byOrder[order[q]] = q;
+                count++;
+            }
+        }
+
+        DFA.Builder builder = new DFA.Builder(dfa.alphabet);
+        for(int i = 0; i < count; i++) builder.state("Q" + i);
+        builder.start("Q0");
+        for(int i = 0; i < count; i++){
+            int q = byOrder[i];
+            if(dfa.acceptBits.get(q)) builder.accept("Q" + i);
+            for(int a = 0; a < k; a++) builder.transition("Q" + i, "Q" + order[dfa.delta[q * k + a]], dfa.alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Minimizes a DFA given as compact tables and builds it in canonical form, with the states named
+     * Q0, Q1... in breadth first order from the start state. The tables are refined with Hopcroft's
+     * algorithm and renumbered before any DFA is built, so constructions that make their tables
+     * directly never build their unminimized DFA
+     * @param alphabet the alphabet
+     * @param stateCount the number of states
+     * @param delta the flat transition table
+     * @param accepts the accept states
+     * @param start the start state
+     * @return the canonical minimal DFA
+     */
+    static DFA minimal(Alphabet alphabet, int stateCount, int[] delta, BitSet accepts, int start){
+        final int k = alphabet.size;
+        int[] initialClass = new int[stateCount];
+        for(int q = accepts.nextSetBit(0); q >= 0; q = accepts.nextSetBit(q + 1)) initialClass[q] = 1;
+        int[] blockOf = Hopcroft.partition(stateCount, k, delta, initialClass);
+        int blocks = 0;
+        for(int q = 0; q < stateCount; q++) blocks = Math.max(blocks, blockOf[q] + 1);
+        int[] quotient = new int[blocks * k];
+        BitSet blockAccepts = new BitSet(blocks);
+        for(int q = 0; q < stateCount; q++){
+            for(int a = 0; a < k; a++) quotient[blockOf[q] * k + a] = blockOf[delta[q * k + a]];
+            if(initialClass[q] == 1) blockAccepts.set(blockOf[q]);
+        }
+
+        int[] order = order(blocks, k, quotient, blockOf[start]);
+        int count = 0;
+        for(int b = 0; b < blocks; b++) count = Math.max(count, order[b] + 1);
+        String[] names = new String[count];
+        for(int i = 0; i < count; i++) names[i] = "Q" + i;
+        DFA.Builder builder = new DFA.Builder(alphabet);
+        for(String name: names) builder.state(name);
+        builder.start(names[0]);
+        for(int b = 0; b < blocks; b++){
+            if(order[b] < 0) continue;
+            if(blockAccepts.get(b)) builder.accept(names[order[b]]);
+            for(int a = 0; a < k; a++) builder.transition(names[order[b]], names[order[quotient[b * k + a]]], alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A stable 64 bit fingerprint of the structure of a DFA. It hashes the canonical form, so it does
+     * not depend on state names or on the order states were given in, and it is the same on every run
+     * and every JVM. DFAs with the same reachable structure always have the same fingerprint
+     * @param dfa the DFA
+     * @return the fingerprint
+     */
+    public static long fingerprint(DFA dfa){
+        return fingerprint128(dfa)[0];
+    }
+
+    /**
+     * A stable 128 bit fingerprint of the structure of a DFA, as two 64 bit hashes of the canonical form
+     * built from different mixing functions, so a collision in one half is not also likely in the other.
+     * It is not a cryptographic hash, so it does not stand up to DFAs built to collide
+     * @param dfa the DFA
+     * @return the low and high halves of the fingerprint
+     */
+    public static long[] fingerprint128(DFA dfa){
+        return hash(dfa.alphabet, dfa.stateCount(), dfa.delta, dfa.acceptBits, dfa.startId);
+    }
+
+    /**
+     * A stable 128 bit fingerprint of the language of a DFA. The reachable part of the DFA is
+     * minimized on int arrays, without naming any merged states, and the canonical form of the
+     * result is hashed, so two DFAs that accept the same language always get the same fingerprint
+     * and equal fingerprints can stand in for a full equivalence check
+     * @param dfa the DFA
+     * @return the low and high halves of the fingerprint
+     */
+    public static long[] languageFingerprint(DFA dfa){
+        final int k = dfa.alphabet.size;
+        int[] order = order(dfa.stateCount(), k, dfa.delta, dfa.startId);
+        int reachable = 0;
+        for(int q = 0; q < order.length; q++) reachable = Math.max(reachable, order[q] + 1);
+
+        int[] delta = new int[reachable * k];
+        int[] initialClass = new int[reachable];
+        for(int q = 0; q < order.length; q++){
+            if(order[q] < 0) continue;
+            for(int a = 0; a < k; a++) delta[order[q] * k + a] = order[dfa.delta[q * k + a]];
+            if(dfa.acceptBits.get(q)) initialClass[order[q]] = 1;
+        }
+
+        int[] blockOf = Hopcroft.partition(reachable, k, delta, initialClass);
+        int blocks = 0;
+        for(int q = 0; q < reachable; q++) blocks = Math.max(blocks, blockOf[q] + 1);
+        int[] quotient = new int[blocks * k];
+        BitSet accepts = new BitSet(blocks);
+        for(int q = 0; q < reachable; q++){
+            for(int a = 0; a < k; a++) quotient[blockOf[q] * k + a] = blockOf[delta[q * k + a]];
+            if(initialClass[q] == 1) accepts.set(blockOf[q]);
+        }
+        return hash(dfa.alphabet, blocks, quotient, accepts, blockOf[0]);
+    }
+
+    /**
+     * Hashes the canonical form of an int-indexed automaton: the symbols and the number of reachable
+     * states, and then the accept bit and the canonical successors of each state in canonical order
+     * @param alphabet the alphabet
+     * @param stateCount the number of states
+     * @param delta the flat transition table
+     * @param accepts the accept states
+     * @param start the start state
+     * @return the low half, hashed with mix and finish, and the high half, hashed with round and avalanche
+     */
+    private static long[] hash(Alphabet alphabet, int stateCount, int[] delta, BitSet accepts, int start){
+        final int alphabetSize = alphabet.size;
+        int[] order = order(stateCount, alphabetSize, delta, start);
+        int count = 0;
+        int[] byOrder = new int[stateCount];
+        for(int q = 0; q < stateCount; q++){
+            if(order[q] >= 0){
+                byOrder[order[q]] = q;
+                count++;
+            }
+        }
+
+        long low = mix(SEED_LOW, count);
+        long high = round(SEED_HIGH, count);
+        low = mix(low, alphabetSize);
+        high = round(high, alphabetSize);
+        for(int a = 0; a < alphabetSize; a++){
+            low = mix(low, alphabet.symbol(a));
+            high = round(high, alphabet.symbol(a));
+        }
+        for(int i = 0; i < count; i++){
+            int q = byOrder[i];
+            long accept = accepts.get(q) ? 1 : 0;
+            low = mix(low, accept);
+            high = round(high, accept);
+            for(int a = 0; a < alphabetSize; a++){
+                int next = order[delta[q * alphabetSize + a]];
+                low = mix(low, next);
+                high = round(high, next);
+            }
+        }
+        return new long[]{finish(low), avalanche(high)};
+    }
+
+    /**
+     * Mixes one value into a running hash
+     * @param hash the hash so far
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    static long mix(long hash, long value){
+        hash ^= value + 0x9E3779B97F4A7C15L;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Mixes one value into a running hash with the round of xxHash64, which multiplies before it
+     * rotates, unlike mix, which adds and multiplies before it shifts
+     * @param hash the hash so far
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    private static long round(long hash, long value){
+        hash += value * PRIME_2;
+        hash = Long.rotateLeft(hash, 31);
+        return hash * PRIME_1;
+    }
+
+    /**
+     * The final avalanche step from xxHash64, for the hashes built with round
+     * @param hash the running hash
+     * @return the finished hash
+     */
+    private static long avalanche(long hash){
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * The final avalanche step from MurmurHash3, so every input bit affects every output bit
+     * @param hash the running hash
+     * @return the finished hash
+     */
+    private static long finish(long hash){
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+}
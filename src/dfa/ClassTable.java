@@ -0,0 +1,131 @@
+package dfa;
+
+import java.util.*;
+
+public class ClassTable {
+    public final DFA dfa;
+    public final int classCount;
+    public final int[] classOf;
+    public final int[] delta;
+
+    private final int[] byteClass;
+
+    /**
+     * Compresses the alphabet of a DFA into symbol classes. Two symbols are in the same class when
+     * every state goes to the same state on both of them, so the DFA cannot tell them apart and only
+     * one column per class is needed. Large alphabets usually collapse to a few classes, e.g. a DFA
+     * over bytes that only looks for digits has a class for the digits and one for everything else,
+     * and the compressed table stays small enough to live in cache.
+     * classOf[a] is the class of the symbol in column a of the alphabet, and delta[q * classCount + c]
+     * is the state reached from q on any symbol of class c
+     * @param dfa the DFA to compress, ideally minimized
+     */
+    public ClassTable(DFA dfa){
+        final int k = dfa.alphabet.size;
+        int n = dfa.stateCount();
+        this.dfa = dfa;
+
+        // Split the columns by their target in each state, until every state has been seen or no class can be split further
+        int[] classOf = new int[k];
+        int classCount = 1;
+        Map<Long, Integer> split = new HashMap<Long, Integer>();
+        for(int q = 0; q < n && classCount < k; q++){
+            split.clear();
+            for(int a = 0; a < k; a++){
+                long key = (long) classOf[a] * n + dfa.delta[q * k + a];
+                Integer c = split.get(key);
+                if(c == null){
+                    c = split.size();
+                    split.put(key, c);
+                }
+                classOf[a] = c;
+            }
+            classCount = split.size();
+        }
+        this.classOf = classOf;
+        this.classCount = classCount;
+
+        int[] column = new int[classCount];
+        for(int a = k - 1; a >= 0; a--) column[classOf[a]] = a;
+        this.delta = new int[n * classCount];
+        for(int q = 0; q < n; q++){
+            for(int c = 0; c < classCount; c++) this.delta[q * classCount + c] = dfa.delta[q * k + column[c]];
+        }
+
+        this.byteClass = new int[256];
+        for(int b = 0; b < 256; b++){
+            int a = dfa.alphabet.column(b);
+            this.byteClass[b] = a < 0 ? -1 : classOf[a];
+        }
+    }
+
+    /**
+     * Finds the class of a symbol
+     * @param symbol the symbol
+     * @return the class of the symbol, or -1 if it is not in the alphabet of the DFA
+     */
+    public int classOfSymbol(int symbol){
+        int a = this.dfa.alphabet.column(symbol);
+        return a < 0 ? -1 : this.classOf[a];
+    }
+
+    /**
+     * Runs the DFA over a sequence of symbols through the compressed table
+     * @param symbols the input symbols
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(int[] symbols){
+        return this.dfa.acceptBits.get(run(this.dfa.startId, symbols, 0, symbols.length));
+    }
+
+    /**
+     * Steps the DFA from the given state over the symbols from (inclusive) to to (exclusive)
+     * @param state the state to start from
+     * @param symbols the input symbols
+     * @param from the first symbol to read
+     * @param to the symbol to stop at
+     * @return the state the DFA is in after reading the symbols
+     */
+    public int run(int state, int[] symbols, int from, int to){
+        final int[] delta = this.delta;
+        final int classCount = this.classCount;
+        for(int i = from; i < to; i++){
+            int c = classOfSymbol(symbols[i]);
+            if(c < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = delta[state * classCount + c];
+        }
+        return state;
+    }
+
+    /**
+     * Runs the DFA over a byte array, reading every byte as one symbol from 0 to 255
+     * @param input the input bytes
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] input){
+        return this.dfa.acceptBits.get(run(this.dfa.startId, input, 0, input.length));
+    }
+
+    /**
+     * Steps the DFA from the given state over the bytes from (inclusive) to to (exclusive), reading
+     * every byte as one symbol from 0 to 255. Each byte costs one lookup in a 256 entry class table
+     * and one in the compressed transition table
+     * @param state the state to start from
+     * @param input the input bytes
+     * @param from the first byte to read
+     * @param to the byte to stop at
+     * @return the state the DFA is in after reading the bytes
+     */
+    public int run(int state, byte[] input, int from, int to){
+        final int[] delta = this.delta;
+        final int[] byteClass = this.byteClass;
+        final int classCount = this.classCount;
+        for(int i = from; i < to; i++){
+            int c = byteClass[input[i] & 0xFF];
+            if(c < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = delta[state * classCount + c];
+        }
+        return state;
+    }
+
+}
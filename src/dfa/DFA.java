@@ -0,0 +1,727 @@
+package dfa;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+public class DFA{
+    // The number of symbols in the binary alphabet, which the bit-packed run loops are written for
+    public static final int ALPHABET_SIZE = 2;
+
+    public Set<String> listAllStates;
+    public String startState;
+    public Set<String> listAcceptStates;
+    public Set<Transition> listTransitions;
+    public Map<String,String[]> transitionTable;
+
+    // Compact form of the same DFA. States are interned to the ids 0..n-1
+    public String[] stateNames;
+    public Map<String,Integer> stateIds;
+    public int startId;
+    public int[] delta;
+    public BitSet acceptBits;
+    public Alphabet alphabet;
+
+    /**
+     * Models a DFA so that I have something to minimize.
+     * The Builder insures that a valid, complete, and binary DFA is created
+     * @param listStates the set of all states in the DFA, each denoted by a String
+     * @param startState the start state for the DFA
+     * @param acceptStates the set of accept states for the DFA, each denoted by a string
+     * @param transitions the transitions for the DFA, each a tuple called a Transition,
+     *                    containing a start state, an end state, and a binary value
+     */
+    DFA(List<String> listStates, String startState, List<String> acceptStates, List<Transition> transitions) {
+        this(Builder.fromLists(Alphabet.BINARY, listStates, startState, acceptStates, transitions));
+    }
+
+    /**
+     * Models a DFA over any finite alphabet, checked the same way as a binary DFA
+     * @param alphabet the alphabet, whose symbols are the values of the transitions
+     * @param listStates the set of all states in the DFA, each denoted by a String
+     * @param startState the start state for the DFA
+     * @param acceptStates the set of accept states for the DFA, each denoted by a string
+     * @param transitions the transitions for the DFA, with one transition out of every state on every symbol
+     */
+    DFA(Alphabet alphabet, List<String> listStates, String startState, List<String> acceptStates, List<Transition> transitions) {
+        this(Builder.fromLists(alphabet, listStates, startState, acceptStates, transitions));
+    }
+
+    /**
+     * Creates a DFA from a Builder that has been given every state, accept state and transition.
+     * The compact tables are copied out of the Builder, and the String fields are views of them
+     * @param builder the builder to finish
+     */
+    private DFA(Builder builder){
+        int n = builder.names.size();
+        // The checks made as each state and transition was added are part of the caller's pass over
+        // its input, so only the final check that the Builder is complete is timed as the validate phase
+        Instrumentation.Phase validate = Instrumentation.begin("validate");
+        try{
+            builder.verifyComplete();
+        }finally{
+            validate.end(n);
+        }
+        this.stateNames = builder.names.toArray(new String[n]);
+        this.stateIds = new HashMap<String,Integer>(builder.ids);
+        this.startId = builder.startId;
+        this.alphabet = builder.alphabet;
+        this.delta = Arrays.copyOf(builder.delta, n * this.alphabet.size);
+        this.acceptBits = (BitSet) builder.accepts.clone();
+        Instrumentation.Phase tables = Instrumentation.begin("tables");
+        createStringTables();
+        tables.end(n);
+    }
+
+    /**
+     * Creates a DFA straight from compact tables that are already known to be valid and complete,
+     * without the checks of a Builder. The DFA takes the given objects over rather than copying them
+     * @param alphabet the alphabet
+     * @param stateNames the name of every state, capitalized and all different
+     * @param stateIds the id of every name
+     * @param startId the id of the start state
+     * @param delta the transition table, with alphabet.size entries for every state
+     * @param acceptBits the accept bitmap
+     */
+    DFA(Alphabet alphabet, String[] stateNames, Map<String,Integer> stateIds, int startId, int[] delta, BitSet acceptBits){
+        this.alphabet = alphabet;
+        this.stateNames = stateNames;
+        this.stateIds = stateIds;
+        this.startId = startId;
+        this.delta = delta;
+        this.acceptBits = acceptBits;
+        Instrumentation.Phase tables = Instrumentation.begin("tables");
+        createStringTables();
+        tables.end(stateNames.length);
+    }
+
+    /**
+     * Points the String fields at read-only views of the compact tables, so that code written against
+     * the String form of the DFA keeps working without a Transition, String array or hash entry being
+     * held for every transition. The views read the tables each time they are used, and only build the
+     * Transitions and rows that are asked for. The state reached from state q on the symbol in column a
+     * of the alphabet is delta[q * alphabet.size + a], and bit q of acceptBits is set if q is an accept state
+     */
+    private void createStringTables(){
+        this.listAllStates = Collections.unmodifiableSet(this.stateIds.keySet());
+        this.startState = this.stateNames[this.startId];
+        this.listAcceptStates = new AcceptStates();
+        this.listTransitions = new Transitions();
+        this.transitionTable = new TransitionTable();
+    }
+
+    /**
+     * Gets the number of states in 'this' DFA
+     * @return the number of states
+     */
+    public int stateCount(){
+        return this.stateNames.length;
+    }
+
+    /**
+     * Runs 'this' DFA over a sequence of symbols from its alphabet
+     * @param symbols the input symbols
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(int[] symbols){
+        final int k = this.alphabet.size;
+        int state = this.startId;
+        for(int symbol: symbols){
+            int column = this.alphabet.column(symbol);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = this.delta[state * k + column];
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * Runs 'this' DFA over a string of '0' and '1' characters
+     * @param input the input, e.g. "0110"
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(String input){
+        requireBinary();
+        int state = this.startId;
+        for(int i = 0; i < input.length(); i++){
+            char c = input.charAt(i);
+            if(c != '0' && c != '1') throw new IllegalArgumentException("The given input contains a symbol that is not 0 or 1");
+            state = this.delta[state * ALPHABET_SIZE + (c - '0')];
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * Runs 'this' DFA over the first length bits of a BitSet, where bit i is the i-th input symbol
+     * @param bits the input bits
+     * @param length the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(BitSet bits, int length){
+        requireBinary();
+        final int[] delta = this.delta;
+        int state = this.startId;
+        for(int i = 0; i < length; i++){
+            state = delta[state * ALPHABET_SIZE + (bits.get(i) ? 1 : 0)];
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * Runs 'this' DFA over every bit of a byte array. Bits are read from the most significant bit of
+     * each byte to the least significant one, and bytes in order
+     * @param bits the packed input bits
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits){
+        return this.acceptBits.get(run(this.startId, bits, 0, (long) bits.length * 8));
+    }
+
+    /**
+     * Runs 'this' DFA over the first bitLength bits of a byte array, read in the same order as accepts(byte[])
+     * @param bits the packed input bits
+     * @param bitLength the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits, long bitLength){
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        return this.acceptBits.get(run(this.startId, bits, 0, bitLength));
+    }
+
+    /**
+     * Runs 'this' DFA over every bit of a stream, read in the same order as accepts(byte[]).
+     * The stream is read through one buffer, and is not closed
+     * @param in the packed input bits
+     * @return true if the DFA ends in an accept state, false otherwise
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean accepts(InputStream in) throws IOException{
+        byte[] buffer = new byte[1 << 16];
+        int state = this.startId;
+        int read;
+        while((read = in.read(buffer)) != -1){
+            state = run(state, buffer, 0, (long) read * 8);
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * Runs 'this' DFA over many inputs in one call. Input i is the first bitLengths[i] bits of inputs[i],
+     * or all of its bits if bitLengths is null
+     * @param inputs the packed input bits of every input
+     * @param bitLengths the number of bits to read from each input, or null
+     * @return a BitSet with bit i set if input i is accepted
+     */
+    public BitSet acceptsAll(byte[][] inputs, long[] bitLengths){
+        if(bitLengths != null && bitLengths.length != inputs.length) throw new IllegalArgumentException("There must be one bit length for every input");
+        BitSet results = new BitSet(inputs.length);
+        for(int i = 0; i < inputs.length; i++){
+            long bitLength = bitLengths == null ? (long) inputs[i].length * 8 : bitLengths[i];
+            if(bitLength < 0 || bitLength > (long) inputs[i].length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+            if(this.acceptBits.get(run(this.startId, inputs[i], 0, bitLength))) results.set(i);
+        }
+        return results;
+    }
+
+    /**
+     * The run loop every accepts method shares. It steps the compact transition table from the given
+     * state over the bits fromBit (inclusive) to toBit (exclusive) of a byte array, a whole byte at a
+     * time where it can, without allocating anything. Only binary DFAs can read packed bits
+     * @param state the state to start from
+     * @param bits the packed input bits
+     * @param fromBit the first bit to read
+     * @param toBit the bit to stop at
+     * @return the state the DFA is in after reading the bits
+     */
+    public int run(int state, byte[] bits, long fromBit, long toBit){
+        requireBinary();
+        final int[] delta = this.delta;
+        long bit = fromBit;
+        while(bit < toBit && (bit & 7) != 0){
+            state = delta[state * ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+            bit++;
+        }
+        int fullEnd = (int) (toBit >>> 3);
+        for(int i = (int) (bit >>> 3); i < fullEnd; i++){
+            int b = bits[i];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 7) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 6) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 5) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 4) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 3) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 2) & 1)];
+            state = delta[state * ALPHABET_SIZE + ((b >>> 1) & 1)];
+            state = delta[state * ALPHABET_SIZE + (b & 1)];
+        }
+        bit = Math.max(bit, (long) fullEnd << 3);
+        while(bit < toBit){
+            state = delta[state * ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+            bit++;
+        }
+        return state;
+    }
+
+    /**
+     * Checks that 'this' DFA is over the binary alphabet, for the methods that read packed bits
+     */
+    void requireBinary(){
+        if(!this.alphabet.isBinary()) throw new IllegalArgumentException("This method only works on DFAs over the binary alphabet");
+    }
+
+    /**
+     * Test if 'this' DFA is equal to the parameter DFA, meaning it has the same alphabet, states,
+     * start state, accept states and transitions. Use isEquivalent to compare the languages of two DFAs instead
+     * @param newDFA a DFA to test against
+     * @return true, if the DFAs are equal, false otherwise
+     */
+    public boolean equals(DFA newDFA){
+        if(!this.alphabet.equals(newDFA.alphabet)) return false;
+        if(!this.listAllStates.equals(newDFA.listAllStates)) return false;
+        if(!this.startState.equals(newDFA.startState)) return false;
+        if(!this.listAcceptStates.equals(newDFA.listAcceptStates)) return false;
+        return this.listTransitions.equals(newDFA.listTransitions);
+    }
+
+    /**
+     * Test if 'this' DFA accepts the same language as the parameter DFA, however their states are named
+     * @param newDFA a DFA to test against
+     * @return true if both DFAs accept exactly the same inputs, false otherwise
+     */
+    public boolean isEquivalent(DFA newDFA){
+        return Equivalence.equivalent(this, newDFA);
+    }
+
+    /**
+     * Finds a shortest input that 'this' DFA and the parameter DFA disagree on
+     * @param newDFA a DFA to test against
+     * @return a shortest string of '0' and '1' accepted by exactly one of the DFAs, or null if they are equivalent
+     */
+    public String distinguishingInput(DFA newDFA){
+        return Equivalence.distinguishingInput(this, newDFA);
+    }
+
+    /**
+     * Gives 'this' DFA's reachable states canonical names Q0, Q1... in breadth first order from the start state
+     * @return the canonical DFA
+     */
+    public DFA canonicalize(){
+        return CanonicalForm.canonicalize(this);
+    }
+
+    /**
+     * A stable 128 bit fingerprint of the language of 'this' DFA, so equivalent DFAs can be found
+     * with one hash lookup
+     * @return the low and high halves of the fingerprint
+     */
+    public long[] languageFingerprint(){
+        return CanonicalForm.languageFingerprint(this);
+    }
+
+    /**
+     * How minimizeDFA refines the partition of the pruned states
+     * SEQUENTIAL: Hopcroft's algorithm on one thread, in O(n * |alphabet| * log n)
+     * PARALLEL: Moore rounds spread over every core by ParallelMoore, for very large DFAs
+     * Both give the same partition, so they give the same DFA
+     */
+    public enum MinimizationMode { SEQUENTIAL, PARALLEL }
+
+    /**
+     * Minimizes a DFA with Hopcroft's algorithm
+     * @param dfa the DFA to minimize
+     * @return a minimized dfa
+     */
+    public DFA minimizeDFA(DFA dfa){
+        return minimizeDFA(dfa, MinimizationMode.SEQUENTIAL);
+    }
+
+    /**
+     * Minimizes a DFA. Pruner first removes the states that cannot be reached from the start state
+     * and merges the dead states into one sink, both in linear time, and then the compact tables
+     * that are left are refined with Hopcroft's partition-refinement algorithm by the int-indexed
+     * engine in Hopcroft, or with parallel Moore rounds by ParallelMoore. Each block becomes one
+     * state named by concatenating the names of the states it merged. The time of every phase and
+     * the state counts before and after are reported to Instrumentation
+     * @param dfa the DFA to minimize
+     * @param mode whether to refine on one thread or on every core
+     * @return a minimized dfa
+     */
+    public DFA minimizeDFA(DFA dfa, MinimizationMode mode){
+        Instrumentation.Phase prune = Instrumentation.begin("prune");
+        Pruner.Result pruned = Pruner.prune(dfa);
+        int n = pruned.stateCount();
+        prune.end(dfa.stateCount());
+        final int k = pruned.alphabet.size;
+        String[] names = pruned.stateNames;
+        int[] delta = pruned.delta;
+        int[] initialClass = new int[n];
+        for(int q = pruned.acceptBits.nextSetBit(0); q >= 0; q = pruned.acceptBits.nextSetBit(q + 1)) initialClass[q] = 1;
+
+        Instrumentation.Phase refine = Instrumentation.begin("refine");
+        int[] blockOf = mode == MinimizationMode.PARALLEL
+                ? ParallelMoore.partition(n, k, delta, initialClass)
+                : Hopcroft.partition(n, k, delta, initialClass);
+        refine.end(n);
+
+        //Now we put it all together to make a new, minimized DFA
+        Instrumentation.Phase build = Instrumentation.begin("build");
+        List<StringBuilder> compilers = new ArrayList<>();
+        int[] representative = new int[n];
+        for(int q = 0; q < n; q++){
+            if(blockOf[q] == compilers.size()){
+                compilers.add(new StringBuilder());
+                representative[blockOf[q]] = q;
+            }
+            compilers.get(blockOf[q]).append(names[q]);
+        }
+        List<String> states = new ArrayList<>();
+        for(StringBuilder compiler: compilers) states.add(compiler.toString());
+
+        String start = states.get(blockOf[pruned.startId]);
+
+        List<String> accepts = new ArrayList<>();
+        for(int b = 0; b < states.size(); b++){
+            if(initialClass[representative[b]] == 1) accepts.add(states.get(b));
+        }
+
+        List<Transition> transitions = new ArrayList<>();
+        for(int b = 0; b < states.size(); b++){
+            int q = representative[b];
+            for(int column = 0; column < k; column++){
+                transitions.add(new Transition(states.get(b), states.get(blockOf[delta[q * k + column]]), dfa.alphabet.symbol(column)));
+            }
+        }
+
+        DFA minimized = new DFA(dfa.alphabet, states, start, accepts, transitions);
+        build.end(minimized.stateCount());
+        Instrumentation.minimization(mode, dfa.stateCount(), n, minimized.stateCount());
+        return minimized;
+    }
+
+
+    /**
+     * The method opens a list of strings and correctly
+     * separates them into a list of lists of strings to store the levels
+     * of equivalence during DFA minimization. Each list is split
+     * on "...".
+     * @param list the list of strings to be converted
+     * @return a properly converted list of lists of strings
+     */
+    public static List<List> openEquivalenceTree(List<String> list) {
+        final String SEPARATOR = "...";
+        List<List> tree = new ArrayList<List>();
+        int startingPoint = 0;
+        int numberOfTables = Collections.frequency(list, SEPARATOR);
+
+        for (int i = 0; i <= numberOfTables; i++) {
+            tree.add(new ArrayList<String>());
+            List<String> currentBranch = tree.get(i);
+
+            for (int j = startingPoint; j < list.size(); j++) {
+                String str = list.get(j);
+                if (!str.equals(SEPARATOR)) {
+                    currentBranch.add(str);
+                } else {
+                    startingPoint = j + 1;
+                    break;
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * This method closes a list of lists of stings into a list
+     * of strings that can be used to check against other layers of
+     * k-equivalence to see if i have completed the minimization
+     * @param list the list of lists of strings to be converted
+     * @return a properly converted list of strings
+     */
+    public static List<String> closeEquivalenceTree(List<List> list) {
+        final String SEPARATOR = "...";
+        List<String> closedList = new ArrayList<String>();
+
+        for(List<String> listToClose: list){
+            for(String str: listToClose){
+                closedList.add(str);
+            }
+            closedList.add(SEPARATOR);
+        }
+        closedList.remove(closedList.size()-1);
+
+        return closedList;
+    }
+
+    /**
+     * The names of the accept states, read from acceptBits
+     */
+    private final class AcceptStates extends AbstractSet<String> {
+        public int size(){
+            return DFA.this.acceptBits.cardinality();
+        }
+
+        public boolean contains(Object o){
+            Integer id = DFA.this.stateIds.get(o);
+            return id != null && DFA.this.acceptBits.get(id);
+        }
+
+        public Iterator<String> iterator(){
+            return new Iterator<String>(){
+                private int next = DFA.this.acceptBits.nextSetBit(0);
+
+                public boolean hasNext(){
+                    return this.next >= 0;
+                }
+
+                public String next(){
+                    if(this.next < 0) throw new NoSuchElementException();
+                    String name = DFA.this.stateNames[this.next];
+                    this.next = DFA.this.acceptBits.nextSetBit(this.next + 1);
+                    return name;
+                }
+            };
+        }
+    }
+
+    /**
+     * Every transition, read from delta. A Transition is only made when the iterator reaches it
+     */
+    private final class Transitions extends AbstractSet<Transition> {
+        public int size(){
+            return DFA.this.delta.length;
+        }
+
+        public boolean contains(Object o){
+            if(!(o instanceof Transition)) return false;
+            Transition t = (Transition) o;
+            Integer start = DFA.this.stateIds.get(t.start);
+            Integer end = DFA.this.stateIds.get(t.end);
+            int column = DFA.this.alphabet.column(t.value);
+            return start != null && end != null && column >= 0 && DFA.this.delta[start * DFA.this.alphabet.size + column] == end;
+        }
+
+        public Iterator<Transition> iterator(){
+            return new Iterator<Transition>(){
+                private int next = 0;
+
+                public boolean hasNext(){
+                    return this.next < DFA.this.delta.length;
+                }
+
+                public Transition next(){
+                    if(this.next >= DFA.this.delta.length) throw new NoSuchElementException();
+                    final int k = DFA.this.alphabet.size;
+                    int q = this.next / k;
+                    int column = this.next % k;
+                    this.next++;
+                    return new Transition(DFA.this.stateNames[q], DFA.this.stateNames[DFA.this.delta[q * k + column]], DFA.this.alphabet.symbol(column));
+                }
+            };
+        }
+    }
+
+    /**
+     * The end states of every state by column, read from delta. Each row is made when it is asked for
+     */
+    private final class TransitionTable extends AbstractMap<String,String[]> {
+        public int size(){
+            return DFA.this.stateNames.length;
+        }
+
+        public boolean containsKey(Object key){
+            return DFA.this.stateIds.containsKey(key);
+        }
+
+        public String[] get(Object key){
+            Integer id = DFA.this.stateIds.get(key);
+            return id == null ? null : row(id);
+        }
+
+        public Set<Map.Entry<String,String[]>> entrySet(){
+            return new AbstractSet<Map.Entry<String,String[]>>(){
+                public int size(){
+                    return DFA.this.stateNames.length;
+                }
+
+                public Iterator<Map.Entry<String,String[]>> iterator(){
+                    return new Iterator<Map.Entry<String,String[]>>(){
+                        private int next = 0;
+
+                        public boolean hasNext(){
+                            return this.next < DFA.this.stateNames.length;
+                        }
+
+                        public Map.Entry<String,String[]> next(){
+                            if(this.next >= DFA.this.stateNames.length) throw new NoSuchElementException();
+                            int q = this.next++;
+                            return new AbstractMap.SimpleImmutableEntry<String,String[]>(DFA.this.stateNames[q], row(q));
+                        }
+                    };
+                }
+            };
+        }
+
+        /**
+         * The end states of a state
+         * @param q the id of the state
+         * @return a new array with the name of the state reached on the symbol in each column
+         */
+        private String[] row(int q){
+            final int k = DFA.this.alphabet.size;
+            String[] ends = new String[k];
+            for(int column = 0; column < k; column++) ends[column] = DFA.this.stateNames[DFA.this.delta[q * k + column]];
+            return ends;
+        }
+    }
+
+    /**
+     * Builds a DFA one state and transition at a time, in a single pass. States are interned to ids
+     * as they are added and transitions go straight into the flat transition table, so every check
+     * is a hash lookup or an array access, and building takes O(states + transitions). States are
+     * capitalized, and must be added before they are used as the start state, an accept state, or
+     * in a transition. The checks throw the same IllegalArgumentExceptions as the DFA constructor,
+     * in the same order
+     */
+    public static class Builder {
+        private final Alphabet alphabet;
+        private final Map<String,Integer> ids = new HashMap<String,Integer>();
+        private final List<String> names = new ArrayList<String>();
+        private final BitSet accepts = new BitSet();
+        private int[] delta = new int[0];
+        private int startId = -1;
+        private boolean illegal = false;
+        private Set<Transition> conflicting;
+
+        /**
+         * Creates a Builder for a DFA over the binary alphabet
+         */
+        public Builder(){
+            this(Alphabet.BINARY);
+        }
+
+        /**
+         * Creates a Builder for a DFA over any alphabet
+         * @param alphabet the alphabet
+         */
+        public Builder(Alphabet alphabet){
+            this.alphabet = alphabet;
+        }
+
+        /**
+         * Creates a Builder that has been given the same lists the DFA constructor takes
+         * @param alphabet the alphabet
+         * @param listStates the list of all states
+         * @param startState the start state
+         * @param acceptStates the list of accept states
+         * @param transitions the list of transitions
+         * @return the Builder, ready to build
+         */
+        static Builder fromLists(Alphabet alphabet, List<String> listStates, String startState, List<String> acceptStates, List<Transition> transitions){
+            Builder builder = new Builder(alphabet);
+            for(String state: listStates) builder.state(state);
+            builder.start(startState);
+            for(String state: acceptStates) builder.accept(state);
+            for(Transition t: transitions) builder.transition(t.start, t.end, t.value);
+            return builder;
+        }
+
+        /**
+         * Adds a state. Adding a state that already exists does nothing
+         * @param state the state
+         * @return 'this' Builder
+         */
+        public Builder state(String state){
+            state = state.toUpperCase();
+            if(!this.ids.containsKey(state)){
+                int id = this.names.size();
+                this.ids.put(state, id);
+                this.names.add(state);
+                if((id + 1) * this.alphabet.size > this.delta.length){
+                    int oldLength = this.delta.length;
+                    this.delta = Arrays.copyOf(this.delta, Math.max(16 * this.alphabet.size, oldLength * 2));
+                    Arrays.fill(this.delta, oldLength, this.delta.length, -1);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sets the start state, which must already have been added
+         * @param state the start state
+         * @return 'this' Builder
+         */
+        public Builder start(String state){
+            Integer id = this.ids.get(state.toUpperCase());
+            if(id == null) throw new IllegalArgumentException("Start state does not exist in the given list of all states");
+            this.startId = id;
+            return this;
+        }
+
+        /**
+         * Adds an accept state, which must already have been added
+         * @param state the accept state
+         * @return 'this' Builder
+         */
+        public Builder accept(String state){
+            Integer id = this.ids.get(state.toUpperCase());
+            if(id == null) throw new IllegalArgumentException("A given accept state does not exist in the given list of all states");
+            this.accepts.set(id);
+            return this;
+        }
+
+        /**
+         * Adds a transition between two states that have already been added, on a symbol of the alphabet.
+         * A transition that was already added throws right away. A second transition out of the
+         * same state on the same value is only reported by build, after every duplicate has been
+         * seen, just like the DFA constructor
+         * @param start the start state
+         * @param end the end state
+         * @param value the symbol of the transition
+         * @return 'this' Builder
+         */
+        public Builder transition(String start, String end, int value){
+            Integer from = this.ids.get(start.toUpperCase());
+            Integer to = this.ids.get(end.toUpperCase());
+            int column = this.alphabet.column(value);
+            if(from == null || to == null || column < 0){
+                throw new IllegalArgumentException("The given list of transitions contains an illegal transition");
+            }
+            int slot = from * this.alphabet.size + column;
+            if(this.delta[slot] == -1){
+                this.delta[slot] = to;
+            }else if(this.delta[slot] == to){
+                throw new IllegalArgumentException("There is a duplicate transition in the given list of transitions");
+            }else{
+                // Only transitions that clash with an earlier one need to be remembered to catch their duplicates
+                if(this.conflicting == null) this.conflicting = new HashSet<Transition>();
+                if(!this.conflicting.add(new Transition(this.names.get(from), this.names.get(to), value))){
+                    throw new IllegalArgumentException("There is a duplicate transition in the given list of transitions");
+                }
+                this.illegal = true;
+            }
+            return this;
+        }
+
+        /**
+         * Checks that there is a start state, that no state has two transitions on the same value,
+         * and that every state has a transition on every value
+         */
+        private void verifyComplete(){
+            if(this.startId < 0) throw new IllegalArgumentException("Start state does not exist in the given list of all states");
+            if(this.illegal) throw new IllegalArgumentException("There is an illegal transition in the given list of transitions");
+            for(int i = 0; i < this.names.size() * this.alphabet.size; i++){
+                if(this.delta[i] != -1) continue;
+                if(this.alphabet.isBinary()) throw new IllegalArgumentException("A given state does not have either a 0 or a 1 transition, or both");
+                throw new IllegalArgumentException("A given state does not have a transition on every symbol of the alphabet");
+            }
+        }
+
+        /**
+         * Builds the DFA
+         * @return a valid and complete DFA
+         */
+        public DFA build(){
+            return new DFA(this);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package dfa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class DFAFile {
+    public static final int MAGIC = 0x44464121;
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 64;
+
+    /**
+     * Writes a DFA in the versioned binary DFA file format. All numbers are little endian, and every
+     * section starts on an 8 byte boundary so it can be used in place once the file is mapped.
+     * The header is:
+     * int magic, int version, int stateCount, int alphabetSize, int startId, int reserved,
+     * long namesOffset, long deltaOffset, long acceptOffset, long fileLength, long alphabetOffset.
+     * The names section is an int[stateCount + 1] of offsets into the UTF-8 bytes of all the state
+     * names, followed by those bytes. The delta section is the flat int[stateCount * alphabetSize]
+     * transition table, the accept section is the accept states as a long[] bitmap, and the alphabet
+     * section is the int[alphabetSize] symbols of the columns of the transition table. Version 1 files
+     * have no alphabet section and are always binary
+     * @param dfa the DFA to write
+     * @param file the file to write to, which is replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(DFA dfa, Path file) throws IOException{
+        int n = dfa.stateCount();
+        byte[][] names = new byte[n][];
+        long nameBytes = 0;
+        for(int q = 0; q < n; q++){
+            names[q] = dfa.stateNames[q].getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[q].length;
+        }
+        if(nameBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("The state names of the given DFA are too long to write");
+
+        long namesOffset = HEADER_BYTES;
+        long deltaOffset = align(namesOffset + 4L * (n + 1) + nameBytes);
+        long acceptOffset = align(deltaOffset + 4L * dfa.delta.length);
+        long[] acceptWords = dfa.acceptBits.toLongArray();
+        long alphabetOffset = acceptOffset + 8L * ((n + 63) / 64);
+        long fileLength = alphabetOffset + 4L * dfa.alphabet.size;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(dfa.alphabet.size).putInt(dfa.startId).putInt(0);
+            buffer.putLong(namesOffset).putLong(deltaOffset).putLong(acceptOffset).putLong(fileLength).putLong(alphabetOffset);
+            buffer.position(HEADER_BYTES);
+
+            int nameOffset = 0;
+            for(int q = 0; q <= n; q++){
+                ensure(channel, buffer, 4);
+                buffer.putInt(nameOffset);
+                if(q < n) nameOffset += names[q].length;
+            }
+            for(int q = 0; q < n; q++){
+                int i = 0;
+                while(i < names[q].length){
+                    ensure(channel, buffer, 1);
+                    int length = Math.min(buffer.remaining(), names[q].length - i);
+                    buffer.put(names[q], i, length);
+                    i += length;
+                }
+            }
+            pad(channel, buffer, deltaOffset);
+            for(int i = 0; i < dfa.delta.length; i++){
+                ensure(channel, buffer, 4);
+                buffer.putInt(dfa.delta[i]);
+            }
+            pad(channel, buffer, acceptOffset);
+            for(int i = 0; i < (n + 63) / 64; i++){
+                ensure(channel, buffer, 8);
+                buffer.putLong(i < acceptWords.length ? acceptWords[i] : 0);
+            }
+            for(int a = 0; a < dfa.alphabet.size; a++){
+                ensure(channel, buffer, 4);
+                buffer.putInt(dfa.alphabet.symbol(a));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Reads a whole DFA file onto the heap. Use MappedDFA.open to use the file in place instead
+     * @param file the file to read
+     * @return the DFA in the file
+     * @throws IOException if the file cannot be read or is not a DFA file
+     */
+    public static DFA read(Path file) throws IOException{
+        return MappedDFA.open(file).toDFA();
+    }
+
+    /**
+     * Rounds a file offset up to the next 8 byte boundary
+     * @param offset the offset
+     * @return the aligned offset
+     */
+    static long align(long offset){
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Makes sure the buffer has room for the given number of bytes, writing it out if it does not
+     * @param channel the channel to write to
+     * @param buffer the buffer being filled
+     * @param bytes the number of bytes about to be put
+     * @throws IOException if the buffer cannot be written
+     */
+    private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException{
+        if(buffer.remaining() < bytes) flush(channel, buffer);
+    }
+
+    /**
+     * Writes zeros until the file reaches the given offset
+     * @param channel the channel to write to
+     * @param buffer the buffer being filled
+     * @param offset the offset to pad to
+     * @throws IOException if the buffer cannot be written
+     */
+    private static void pad(FileChannel channel, ByteBuffer buffer, long offset) throws IOException{
+        while(channel.position() + buffer.position() < offset){
+            ensure(channel, buffer, 1);
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Writes out everything in the buffer and clears it
+     * @param channel the channel to write to
+     * @param buffer the buffer to write
+     * @throws IOException if the buffer cannot be written
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException{
+        buffer.flip();
+        while(buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+}
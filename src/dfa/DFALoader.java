@@ -0,0 +1,317 @@
+package dfa;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DFALoader {
+
+    /**
+     * Loads a DFA from a file, as JSON if the file name ends in .json and in the line format otherwise
+     * @param file the file to load
+     * @return the DFA in the file
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static DFA load(Path file) throws IOException{
+        try(BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            if(file.getFileName().toString().toLowerCase().endsWith(".json")) return loadJson(in);
+            return loadText(in);
+        }
+    }
+
+    /**
+     * Loads a DFA from the line format. Every line is either blank, a comment starting with #,
+     * a transition "start end value", or one of the directives "@start state", "@accept state..."
+     * and "@states state...". States are added the first time they are seen, so @states is only
+     * needed for documentation. Transitions go straight into a DFA.Builder as each line is read,
+     * so no list of Transitions is ever built. For example:
+     * <pre>
+     * @start S
+     * @accept D E
+     * S A 0
+     * S B 1
+     * </pre>
+     * @param in the text to read
+     * @return the DFA
+     * @throws IOException if the text cannot be read or is malformed
+     */
+    public static DFA loadText(Reader in) throws IOException{
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        DFA.Builder builder = new DFA.Builder();
+        String start = null;
+        String[] tokens = new String[3];
+        int lineNumber = 0;
+        String line;
+        while((line = reader.readLine()) != null){
+            lineNumber++;
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#")) continue;
+
+            if(line.startsWith("@")){
+                String[] words = line.split("\\s+");
+                if(words[0].equals("@start") && words.length == 2){
+                    start = words[1];
+                    builder.state(start);
+                }else if(words[0].equals("@accept")){
+                    for(int i = 1; i < words.length; i++) builder.state(words[i]).accept(words[i]);
+                }else if(words[0].equals("@states")){
+                    for(int i = 1; i < words.length; i++) builder.state(words[i]);
+                }else{
+                    throw new IOException("Unknown directive on line " + lineNumber + ": " + line);
+                }
+                continue;
+            }
+
+            if(split(line, tokens) != 3) throw new IOException("Expected \"start end value\" on line " + lineNumber + ": " + line);
+            int value;
+            try{
+                value = Integer.parseInt(tokens[2]);
+            }catch(NumberFormatException e){
+                throw new IOException("The value on line " + lineNumber + " is not a number: " + line);
+            }
+            builder.state(tokens[0]).state(tokens[1]).transition(tokens[0], tokens[1], value);
+        }
+        if(start == null) throw new IOException("There is no @start line");
+        return builder.start(start).build();
+    }
+
+    /**
+     * Splits a line on whitespace into at most tokens.length tokens
+     * @param line the trimmed line
+     * @param tokens where to put the tokens
+     * @return the number of tokens in the line, which may be more than were stored
+     */
+    private static int split(String line, String[] tokens){
+        int count = 0;
+        int i = 0;
+        while(i < line.length()){
+            while(i < line.length() && Character.isWhitespace(line.charAt(i))) i++;
+            if(i == line.length()) break;
+            int from = i;
+            while(i < line.length() && !Character.isWhitespace(line.charAt(i))) i++;
+            if(count < tokens.length) tokens[count] = line.substring(from, i);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Loads a DFA from JSON of the form
+     * <pre>
+     * {"states": ["S", "A"], "start": "S", "accept": ["A"],
+     *  "transitions": [["S", "A", 0], {"start": "S", "end": "S", "value": 1}, ...]}
+     * </pre>
+     * where each transition is either a [start, end, value] array or an object. The keys can come in
+     * any order, states are added the first time they are seen, and unknown keys are skipped. The
+     * JSON is parsed as a stream of tokens and each transition goes straight into a DFA.Builder,
+     * so no document tree or list of Transitions is ever built
+     * @param in the JSON to read
+     * @return the DFA
+     * @throws IOException if the JSON cannot be read or is malformed
+     */
+    public static DFA loadJson(Reader in) throws IOException{
+        JsonReader json = new JsonReader(in);
+        DFA.Builder builder = new DFA.Builder();
+        String start = null;
+
+        json.expect('{');
+        if(!json.consume('}')){
+            do{
+                String key = json.readString();
+                json.expect(':');
+                if(key.equals("states")){
+                    json.expect('[');
+                    if(!json.consume(']')){
+                        do{
+                            builder.state(json.readString());
+                        }while(json.consume(','));
+                        json.expect(']');
+                    }
+                }else if(key.equals("start")){
+                    start = json.readString();
+                    builder.state(start);
+                }else if(key.equals("accept")){
+                    json.expect('[');
+                    if(!json.consume(']')){
+                        do{
+                            String state = json.readString();
+                            builder.state(state).accept(state);
+                        }while(json.consume(','));
+                        json.expect(']');
+                    }
+                }else if(key.equals("transitions")){
+                    json.expect('[');
+                    if(!json.consume(']')){
+                        do{
+                            readTransition(json, builder);
+                        }while(json.consume(','));
+                        json.expect(']');
+                    }
+                }else{
+                    json.skipValue();
+                }
+            }while(json.consume(','));
+            json.expect('}');
+        }
+        if(start == null) throw new IOException("There is no \"start\" key");
+        return builder.start(start).build();
+    }
+
+    /**
+     * Reads one transition, as an array or an object, and adds it to the builder
+     * @param json the JSON being read
+     * @param builder the builder to add the transition to
+     * @throws IOException if the transition is malformed
+     */
+    private static void readTransition(JsonReader json, DFA.Builder builder) throws IOException{
+        String start = null;
+        String end = null;
+        int value = 0;
+        boolean hasValue = true;
+        if(json.consume('[')){
+            start = json.readString();
+            json.expect(',');
+            end = json.readString();
+            json.expect(',');
+            value = json.readInt();
+            json.expect(']');
+        }else{
+            json.expect('{');
+            hasValue = false;
+            do{
+                String key = json.readString();
+                json.expect(':');
+                if(key.equals("start")){
+                    start = json.readString();
+                }else if(key.equals("end")){
+                    end = json.readString();
+                }else if(key.equals("value")){
+                    value = json.readInt();
+                    hasValue = true;
+                }else{
+                    json.skipValue();
+                }
+            }while(json.consume(','));
+            json.expect('}');
+            if(start == null || end == null) throw json.error("A transition needs a start and an end");
+            if(!hasValue) throw json.error("A transition needs a value");
+        }
+        builder.state(start).state(end).transition(start, end, value);
+    }
+
+    /**
+     * Just enough of a streaming JSON tokenizer to read a DFA. It reads one character at a time
+     * from the underlying Reader and never holds more than the current token
+     */
+    private static final class JsonReader {
+        private final Reader in;
+        private final StringBuilder token = new StringBuilder();
+        private int next = -2;
+        private int line = 1;
+
+        JsonReader(Reader in){
+            this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+        }
+
+        private int peek() throws IOException{
+            if(this.next == -2) this.next = this.in.read();
+            return this.next;
+        }
+
+        private int read() throws IOException{
+            int c = peek();
+            this.next = -2;
+            if(c == '\n') this.line++;
+            return c;
+        }
+
+        private void skipWhitespace() throws IOException{
+            while(peek() == ' ' || peek() == '\t' || peek() == '\n' || peek() == '\r') read();
+        }
+
+        IOException error(String message){
+            return new IOException("Malformed DFA JSON on line " + this.line + ": " + message);
+        }
+
+        boolean consume(char c) throws IOException{
+            skipWhitespace();
+            if(peek() != c) return false;
+            read();
+            return true;
+        }
+
+        void expect(char c) throws IOException{
+            if(!consume(c)) throw error("expected '" + c + "'");
+        }
+
+        String readString() throws IOException{
+            expect('"');
+            this.token.setLength(0);
+            while(true){
+                int c = read();
+                if(c == -1) throw error("unterminated string");
+                if(c == '"') return this.token.toString();
+                if(c == '\\'){
+                    c = read();
+                    switch(c){
+                        case 'n': this.token.append('\n'); break;
+                        case 't': this.token.append('\t'); break;
+                        case 'r': this.token.append('\r'); break;
+                        case 'b': this.token.append('\b'); break;
+                        case 'f': this.token.append('\f'); break;
+                        case 'u':
+                            int code = 0;
+                            for(int i = 0; i < 4; i++){
+                                int digit = Character.digit(read(), 16);
+                                if(digit < 0) throw error("expected 4 hex digits after \\u");
+                                code = code * 16 + digit;
+                            }
+                            this.token.append((char) code);
+                            break;
+                        default: this.token.append((char) c);
+                    }
+                }else{
+                    this.token.append((char) c);
+                }
+            }
+        }
+
+        int readInt() throws IOException{
+            skipWhitespace();
+            this.token.setLength(0);
+            while(peek() == '-' || (peek() >= '0' && peek() <= '9')) this.token.append((char) read());
+            try{
+                return Integer.parseInt(this.token.toString());
+            }catch(NumberFormatException e){
+                throw error("expected a number");
+            }
+        }
+
+        void skipValue() throws IOException{
+            skipWhitespace();
+            int c = peek();
+            if(c == '"'){
+                readString();
+            }else if(c == '[' || c == '{'){
+                char close = c == '[' ? ']' : '}';
+                read();
+                if(consume(close)) return;
+                do{
+                    if(close == '}'){
+                        readString();
+                        expect(':');
+                    }
+                    skipValue();
+                }while(consume(','));
+                expect(close);
+            }else{
+                // A number, true, false or null
+                while(peek() != -1 && peek() != ',' && peek() != '}' && peek() != ']' && !Character.isWhitespace(peek())) read();
+            }
+        }
+    }
+
+}
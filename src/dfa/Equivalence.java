@@ -0,0 +1,130 @@
+package dfa;
+
+public class Equivalence {
+
+    /**
+     * Tests whether two DFAs accept the same language
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return true if the DFAs accept exactly the same inputs, false otherwise
+     */
+    public static boolean equivalent(DFA one, DFA two){
+        return distinguishingSymbols(one, two) == null;
+    }
+
+    /**
+     * Finds a shortest input two binary DFAs disagree on, written as a string
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return a shortest string of '0' and '1' that one DFA accepts and the other does not,
+     * "" if only one of the start states accepts, or null if the DFAs are equivalent
+     */
+    public static String distinguishingInput(DFA one, DFA two){
+        one.requireBinary();
+        int[] symbols = distinguishingSymbols(one, two);
+        if(symbols == null) return null;
+        StringBuilder input = new StringBuilder(symbols.length);
+        for(int symbol: symbols) input.append((char) ('0' + symbol));
+        return input.toString();
+    }
+
+    /**
+     * Hopcroft and Karp's near-linear equivalence check. The states of both DFAs are put in one
+     * union-find structure, and pairs of states that have to be equivalent are merged starting from
+     * the two start states. Pairs are explored breadth first, and a pair is only explored when it
+     * merges two classes, so at most n1 + n2 pairs are ever looked at and the check runs in
+     * O((n1 + n2) * |alphabet| * a(n)), where a is the inverse Ackermann function. Because the
+     * pairs are explored breadth first, the first accept/reject mismatch found is reached by a
+     * shortest input that tells the DFAs apart
+     * @param one the first DFA
+     * @param two the second DFA, over the same alphabet as the first
+     * @return a shortest sequence of symbols that one DFA accepts and the other does not,
+     * an empty array if only one of the start states accepts, or null if the DFAs are equivalent
+     */
+    public static int[] distinguishingSymbols(DFA one, DFA two){
+        if(!one.alphabet.equals(two.alphabet)) throw new IllegalArgumentException("The given DFAs do not have the same alphabet");
+        final int k = one.alphabet.size;
+        int n1 = one.stateCount();
+        int n2 = two.stateCount();
+        if(one.acceptBits.get(one.startId) != two.acceptBits.get(two.startId)) return new int[0];
+
+        int[] parent = new int[n1 + n2];
+        int[] size = new int[n1 + n2];
+        for(int i = 0; i < parent.length; i++){
+            parent[i] = i;
+            size[i] = 1;
+        }
+
+        // The queue of explored pairs, with the pair and symbol each one was reached from.
+        // Every pair but the first merges two classes, so there are at most n1 + n2 of them
+        int[] left = new int[n1 + n2];
+        int[] right = new int[n1 + n2];
+        int[] from = new int[n1 + n2];
+        int[] column = new int[n1 + n2];
+        left[0] = one.startId;
+        right[0] = two.startId;
+        from[0] = -1;
+        int tail = 1;
+        union(parent, size, one.startId, n1 + two.startId);
+
+        for(int head = 0; head < tail; head++){
+            for(int a = 0; a < k; a++){
+                int p = one.delta[left[head] * k + a];
+                int q = two.delta[right[head] * k + a];
+                if(!union(parent, size, p, n1 + q)) continue;
+
+                left[tail] = p;
+                right[tail] = q;
+                from[tail] = head;
+                column[tail] = a;
+                tail++;
+
+                if(one.acceptBits.get(p) != two.acceptBits.get(q)){
+                    int length = 0;
+                    for(int i = tail - 1; from[i] >= 0; i = from[i]) length++;
+                    int[] input = new int[length];
+                    for(int i = tail - 1; from[i] >= 0; i = from[i]) input[--length] = one.alphabet.symbol(column[i]);
+                    return input;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the class of an element, halving the path on the way
+     * @param parent the union-find forest
+     * @param x the element
+     * @return the root of the class of x
+     */
+    private static int find(int[] parent, int x){
+        while(parent[x] != x){
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merges the classes of two elements, hanging the smaller class under the larger one
+     * @param parent the union-find forest
+     * @param size the size of the class of each root
+     * @param x the first element
+     * @param y the second element
+     * @return true if the elements were in different classes, false if they already were in the same one
+     */
+    private static boolean union(int[] parent, int[] size, int x, int y){
+        int rootX = find(parent, x);
+        int rootY = find(parent, y);
+        if(rootX == rootY) return false;
+        if(size[rootX] > size[rootY]){
+            int swap = rootX;
+            rootX = rootY;
+            rootY = swap;
+        }
+        parent[rootX] = rootY;
+        size[rootY] += size[rootX];
+        return true;
+    }
+
+}
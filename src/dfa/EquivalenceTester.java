@@ -0,0 +1,168 @@
+package dfa;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquivalenceTester {
+
+    /**
+     * A helper method that finds the length of a shortest input two DFAs disagree on by searching
+     * every pair of states breadth first
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return the length of a shortest distinguishing input, or -1 if the DFAs are equivalent
+     */
+    public static int shortestDistinguishingLength(DFA one, DFA two){
+        int n2 = two.stateCount();
+        int[] depth = new int[one.stateCount() * n2];
+        Arrays.fill(depth, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        depth[one.startId * n2 + two.startId] = 0;
+        queue.add(one.startId * n2 + two.startId);
+        while(!queue.isEmpty()){
+            int pair = queue.poll();
+            int p = pair / n2;
+            int q = pair % n2;
+            if(one.acceptBits.get(p) != two.acceptBits.get(q)) return depth[pair];
+            for(int a = 0; a < DFA.ALPHABET_SIZE; a++){
+                int next = one.delta[p * DFA.ALPHABET_SIZE + a] * n2 + two.delta[q * DFA.ALPHABET_SIZE + a];
+                if(depth[next] < 0){
+                    depth[next] = depth[pair] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This test is to check that a DFA is equivalent to its minimized DFA, and that the two
+     * minimization tests from class are equivalent to their answers
+     */
+    @Test
+    public void testMinimizedDFAIsEquivalent(){
+        Random random = new Random(11);
+        for(int i = 0; i < 50; i++){
+            DFA DFA = RunningTester.randomDFA(random, 1 + random.nextInt(30));
+            DFA minimized = DFA.minimizeDFA(DFA);
+            assertTrue(DFA.isEquivalent(minimized));
+            assertNull(minimized.distinguishingInput(DFA));
+        }
+        DFA lecture = LoadingTester.lectureDFA();
+        assertTrue(lecture.isEquivalent(lecture.minimizeDFA(lecture)));
+    }
+
+    /**
+     * This test is to check that the distinguishing input really is accepted by exactly one of the
+     * DFAs, and that no shorter input exists
+     */
+    @Test
+    public void testShortestDistinguishingInput(){
+        Random random = new Random(12);
+        int distinguished = 0;
+        for(int i = 0; i < 300; i++){
+            DFA one = RunningTester.randomDFA(random, 1 + random.nextInt(8));
+            DFA two = RunningTester.randomDFA(random, 1 + random.nextInt(8));
+            String input = one.distinguishingInput(two);
+            int expected = shortestDistinguishingLength(one, two);
+            if(input == null){
+                assertEquals(-1, expected);
+            }else{
+                assertEquals(expected, input.length());
+                assertNotEquals(one.accepts(input), two.accepts(input));
+                distinguished++;
+            }
+        }
+        assertTrue(distinguished > 0);
+    }
+
+    /**
+     * This test is to check that equals is false for DFAs that differ, which it used to miss
+     * when the states or the start states were different
+     */
+    @Test
+    public void testEqualsComparesEverything(){
+        DFA lecture = LoadingTester.lectureDFA();
+        DFA minimized = lecture.minimizeDFA(lecture);
+        assertTrue(lecture.equals(LoadingTester.lectureDFA()));
+        assertFalse(lecture.equals(minimized));
+        assertFalse(minimized.equals(lecture));
+        assertTrue(lecture.isEquivalent(minimized));
+    }
+
+    /**
+     * This test is to check that the canonical form does not depend on state names or order, and
+     * that the minimized canonical forms are equal exactly when the DFAs are equivalent
+     */
+    @Test
+    public void testCanonicalFormAndFingerprint(){
+        DFA lecture = LoadingTester.lectureDFA();
+        // The lecture DFA with S, A, B, C, D, E renamed to Z, Y, X, W, V, U and given in reverse order
+        DFA renamed = new DFA.Builder()
+                .state("U").state("V").state("W").state("X").state("Y").state("Z")
+                .start("Z").accept("U").accept("V")
+                .transition("U", "U", 1).transition("U", "U", 0)
+                .transition("V", "U", 1).transition("V", "V", 0)
+                .transition("W", "W", 1).transition("W", "X", 0)
+                .transition("X", "W", 1).transition("X", "X", 0)
+                .transition("Y", "V", 1).transition("Y", "W", 0)
+                .transition("Z", "X", 1).transition("Z", "Y", 0)
+                .build();
+        assertTrue(lecture.canonicalize().equals(renamed.canonicalize()));
+        assertEquals(CanonicalForm.fingerprint(lecture), CanonicalForm.fingerprint(renamed));
+
+        DFA minimized = lecture.minimizeDFA(lecture);
+        assertFalse(lecture.canonicalize().equals(minimized.canonicalize()));
+        assertArrayEquals(lecture.languageFingerprint(), minimized.languageFingerprint());
+        assertTrue(minimized.canonicalize().equals(renamed.minimizeDFA(renamed).canonicalize()));
+
+        Random random = new Random(13);
+        for(int i = 0; i < 300; i++){
+            DFA one = RunningTester.randomDFA(random, 1 + random.nextInt(6));
+            DFA two = RunningTester.randomDFA(random, 1 + random.nextInt(6));
+            boolean sameFingerprint = Arrays.equals(one.languageFingerprint(), two.languageFingerprint());
+            assertEquals(one.isEquivalent(two), sameFingerprint);
+        }
+    }
+
+    /**
+     * This test is to check every product operation against running both DFAs, that the n-way
+     * product is the same DFA as the pairwise one, and that a symmetric difference with no accept
+     * states means the DFAs are equivalent
+     */
+    @Test
+    public void testProductOperations(){
+        Random random = new Random(19);
+        for(int i = 0; i < 100; i++){
+            DFA one = RunningTester.randomDFA(random, 1 + random.nextInt(6));
+            DFA two = RunningTester.randomDFA(random, 1 + random.nextInt(6));
+            for(Product.Operation operation: Product.Operation.values()){
+                DFA product = Product.combine(one, two, operation);
+                for(int j = 0; j < 20; j++){
+                    StringBuilder input = new StringBuilder();
+                    for(int b = random.nextInt(10); b > 0; b--) input.append(random.nextInt(2));
+                    String bits = input.toString();
+                    assertEquals(operation.accepts(one.accepts(bits), two.accepts(bits)), product.accepts(bits));
+                }
+            }
+            assertEquals(one.isEquivalent(two), Product.symmetricDifference(one, two).listAcceptStates.isEmpty());
+
+            DFA three = RunningTester.randomDFA(random, 1 + random.nextInt(6));
+            assertTrue(Product.intersectAll(one, two, three).equals(Product.intersect(Product.intersect(one, two), three)));
+            assertTrue(Product.unionAll(one, two, three).equals(Product.union(one, Product.union(two, three))));
+        }
+
+        DFA divisibleBySix = Product.intersect(RunningTester.divisibleByThree(), new DFA.Builder()
+                .state("E").state("O").start("E").accept("E")
+                .transition("E", "E", 0).transition("E", "O", 1).transition("O", "E", 0).transition("O", "O", 1)
+                .build());
+        assertEquals(4, divisibleBySix.stateCount());
+        assertTrue(divisibleBySix.accepts("10010"));
+        assertFalse(divisibleBySix.accepts("1001"));
+        assertThrows(IllegalArgumentException.class, () -> Product.union(RunningTester.divisibleByThree(), RunningTester.endsWithDigit()));
+    }
+
+}
@@ -0,0 +1,151 @@
+package dfa;
+
+import java.util.*;
+
+public class Hopcroft {
+
+    /**
+     * Hopcroft's partition-refinement algorithm over an int-indexed automaton. States are the ids
+     * 0..stateCount-1 and the transition function is the flat array delta, where the state reached
+     * from q on symbol a is delta[q * alphabetSize + a]. Blocks live as contiguous ranges of one
+     * permutation array, and splitters are (block, symbol) pairs kept on a worklist, so the whole
+     * refinement runs in O(n * |alphabet| * log n).
+     * @param stateCount the number of states
+     * @param alphabetSize the number of symbols
+     * @param delta the flat transition table
+     * @param initialClass the class of every state before refinement, e.g. 1 for accept states and 0 otherwise
+     * @return the block of every state in the coarsest refinement of initialClass that is
+     * closed under delta. Blocks are numbered 0, 1, 2... in the order of their lowest state id
+     */
+    public static int[] partition(int stateCount, int alphabetSize, int[] delta, int[] initialClass){
+        final int n = stateCount;
+        final int k = alphabetSize;
+
+        // Inverse transitions, grouped by (target, symbol)
+        int[] invStart = new int[n * k + 1];
+        for(int i = 0; i < n * k; i++) invStart[delta[i] * k + (i % k) + 1]++;
+        for(int i = 0; i < n * k; i++) invStart[i + 1] += invStart[i];
+        int[] invList = new int[n * k];
+        int[] fill = new int[n * k];
+        for(int i = 0; i < n * k; i++){
+            int key = delta[i] * k + (i % k);
+            invList[invStart[key] + fill[key]++] = i / k;
+        }
+        fill = null;
+
+        // Blocks are ranges [first, end) of elems. The first marked[b] entries of a block are the marked ones
+        int[] elems = new int[n];
+        int[] loc = new int[n];
+        int[] blockOf = new int[n];
+        int[] first = new int[n + 1];
+        int[] end = new int[n + 1];
+        int[] marked = new int[n + 1];
+        int blockCount = 0;
+
+        int classCount = 0;
+        for(int q = 0; q < n; q++) classCount = Math.max(classCount, initialClass[q] + 1);
+        int[] classBlock = new int[classCount];
+        int[] classSize = new int[classCount];
+        for(int q = 0; q < n; q++) classSize[initialClass[q]]++;
+        int position = 0;
+        for(int c = 0; c < classCount; c++){
+            if(classSize[c] == 0) continue;
+            classBlock[c] = blockCount;
+            first[blockCount] = position;
+            end[blockCount] = position;
+            position += classSize[c];
+            blockCount++;
+        }
+        for(int q = 0; q < n; q++){
+            int b = classBlock[initialClass[q]];
+            blockOf[q] = b;
+            loc[q] = end[b];
+            elems[end[b]++] = q;
+        }
+
+        // Every initial block but the largest one starts out as a splitter
+        int[] work = new int[n * k + k];
+        int workSize = 0;
+        int largest = 0;
+        for(int b = 1; b < blockCount; b++){
+            if(end[b] - first[b] > end[largest] - first[largest]) largest = b;
+        }
+        for(int b = 0; b < blockCount; b++){
+            if(b == largest) continue;
+            for(int a = 0; a < k; a++){
+                work[workSize++] = b * k + a;
+            }
+        }
+
+        int[] splitter = new int[n];
+        int[] touched = new int[n];
+        int rounds = 0;
+        int splits = 0;
+        while(workSize > 0){
+            int item = work[--workSize];
+            rounds++;
+            int s = item / k;
+            int a = item % k;
+
+            // The splitter may be split while we mark, so take a copy of it first
+            int splitterSize = 0;
+            for(int i = first[s]; i < end[s]; i++) splitter[splitterSize++] = elems[i];
+
+            int touchedCount = 0;
+            for(int i = 0; i < splitterSize; i++){
+                int key = splitter[i] * k + a;
+                for(int j = invStart[key]; j < invStart[key + 1]; j++){
+                    int p = invList[j];
+                    int b = blockOf[p];
+                    int boundary = first[b] + marked[b];
+                    if(loc[p] < boundary) continue;
+                    if(marked[b] == 0) touched[touchedCount++] = b;
+                    int other = elems[boundary];
+                    elems[boundary] = p;
+                    elems[loc[p]] = other;
+                    loc[other] = loc[p];
+                    loc[p] = boundary;
+                    marked[b]++;
+                }
+            }
+
+            for(int t = 0; t < touchedCount; t++){
+                int b = touched[t];
+                int m = marked[b];
+                marked[b] = 0;
+                int size = end[b] - first[b];
+                if(m == size) continue;
+
+                // The smaller half becomes the new block, so every state is relabelled O(log n) times
+                int newBlock = blockCount++;
+                splits++;
+                if(m <= size - m){
+                    first[newBlock] = first[b];
+                    end[newBlock] = first[b] + m;
+                    first[b] += m;
+                }else{
+                    first[newBlock] = first[b] + m;
+                    end[newBlock] = end[b];
+                    end[b] = first[b] + m;
+                }
+                for(int i = first[newBlock]; i < end[newBlock]; i++) blockOf[elems[i]] = newBlock;
+
+                // Whether or not (b, c) is still waiting, adding the smaller half (newBlock, c) is enough
+                for(int c = 0; c < k; c++) work[workSize++] = newBlock * k + c;
+            }
+        }
+
+        // Renumber the blocks in order of their lowest state so the output does not depend on split order
+        int[] renumber = new int[blockCount];
+        Arrays.fill(renumber, -1);
+        int next = 0;
+        for(int q = 0; q < n; q++){
+            int b = blockOf[q];
+            if(renumber[b] < 0) renumber[b] = next++;
+            blockOf[q] = renumber[b];
+        }
+        Instrumentation.refinement("hopcroft", n, rounds, splits, next);
+        return blockOf;
+    }
+
+}
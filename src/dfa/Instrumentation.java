@@ -0,0 +1,202 @@
+package dfa;
+
+import jdk.jfr.*;
+
+public class Instrumentation {
+    private static volatile Metrics metrics = Metrics.NOOP;
+
+    private static final EventType PHASE = EventType.getEventType(PhaseEvent.class);
+    private static final EventType ROUND = EventType.getEventType(RoundEvent.class);
+    private static final EventType REFINEMENT = EventType.getEventType(RefinementEvent.class);
+    private static final EventType MINIMIZATION = EventType.getEventType(MinimizationEvent.class);
+
+    /**
+     * Sets where construction and minimization report their counters and histograms. Everything is
+     * also reported as JFR events while a recording that enables them is running, whatever is set here
+     * @param registry the metrics, or null for Metrics.NOOP
+     */
+    public static void setMetrics(Metrics registry){
+        metrics = registry == null ? Metrics.NOOP : registry;
+    }
+
+    /**
+     * The metrics that are reported to
+     * @return the metrics, which are Metrics.NOOP unless others were set
+     */
+    public static Metrics getMetrics(){
+        return metrics;
+    }
+
+    /**
+     * Starts timing a phase. With no metrics set and no recording running this reads neither the
+     * clock nor allocates, and returns a Phase whose end does nothing
+     * @param name the name of the phase, e.g. prune
+     * @return the running phase
+     */
+    static Phase begin(String name){
+        Metrics registry = metrics;
+        boolean recording = PHASE.isEnabled();
+        if(registry == Metrics.NOOP && !recording) return Phase.DISABLED;
+        return new Phase(name, registry, recording);
+    }
+
+    /**
+     * Reports one round of a refinement that goes in rounds
+     * @param algorithm the name of the algorithm
+     * @param round the number of the round, from 1
+     * @param blocks the number of blocks after the round
+     * @param splits the number of blocks the round added
+     */
+    static void round(String algorithm, int round, int blocks, int splits){
+        if(!ROUND.isEnabled()) return;
+        RoundEvent event = new RoundEvent();
+        event.algorithm = algorithm;
+        event.round = round;
+        event.blocks = blocks;
+        event.splits = splits;
+        event.commit();
+    }
+
+    /**
+     * Reports a whole partition refinement
+     * @param algorithm the name of the algorithm
+     * @param states the number of states refined
+     * @param rounds the number of rounds: splitters taken off the worklist for Hopcroft, symbol steps for Moore
+     * @param splits the number of times a block was split
+     * @param blocks the number of blocks at the end
+     */
+    static void refinement(String algorithm, int states, int rounds, int splits, int blocks){
+        Metrics registry = metrics;
+        if(registry != Metrics.NOOP){
+            registry.increment("dfa.refinement.rounds", rounds);
+            registry.increment("dfa.refinement.splits", splits);
+            registry.record("dfa.refinement.blocks", blocks);
+        }
+        if(!REFINEMENT.isEnabled()) return;
+        RefinementEvent event = new RefinementEvent();
+        event.algorithm = algorithm;
+        event.states = states;
+        event.rounds = rounds;
+        event.splits = splits;
+        event.blocks = blocks;
+        event.commit();
+    }
+
+    /**
+     * Reports the state counts of one minimizeDFA
+     * @param mode the minimization mode
+     * @param before the number of states given
+     * @param pruned the number of states left after pruning
+     * @param after the number of states in the minimized DFA
+     */
+    static void minimization(DFA.MinimizationMode mode, int before, int pruned, int after){
+        Metrics registry = metrics;
+        if(registry != Metrics.NOOP){
+            registry.increment("dfa.minimizations", 1);
+            registry.record("dfa.minimization.statesBefore", before);
+            registry.record("dfa.minimization.statesPruned", pruned);
+            registry.record("dfa.minimization.statesAfter", after);
+        }
+        if(!MINIMIZATION.isEnabled()) return;
+        MinimizationEvent event = new MinimizationEvent();
+        event.mode = mode.name();
+        event.statesBefore = before;
+        event.statesPruned = pruned;
+        event.statesAfter = after;
+        event.commit();
+    }
+
+    /**
+     * A phase being timed. Its time goes to the histogram dfa.[name].nanos and to a PhaseEvent
+     */
+    static final class Phase {
+        static final Phase DISABLED = new Phase(null, Metrics.NOOP, false);
+
+        private final String name;
+        private final Metrics registry;
+        private final PhaseEvent event;
+        private final long start;
+
+        private Phase(String name, Metrics registry, boolean recording){
+            this.name = name;
+            this.registry = registry;
+            this.event = recording ? new PhaseEvent() : null;
+            if(this.event != null) this.event.begin();
+            this.start = name == null ? 0 : System.nanoTime();
+        }
+
+        /**
+         * Stops timing the phase and reports it
+         * @param states the number of states the phase worked on
+         */
+        void end(int states){
+            if(this.name == null) return;
+            if(this.registry != Metrics.NOOP) this.registry.record("dfa." + this.name + ".nanos", System.nanoTime() - this.start);
+            if(this.event == null) return;
+            this.event.end();
+            if(!this.event.shouldCommit()) return;
+            this.event.phase = this.name;
+            this.event.states = states;
+            this.event.commit();
+        }
+    }
+
+    @Name("dfa.Phase")
+    @Label("DFA Phase")
+    @Category("DFA")
+    @Description("One phase of building or minimizing a DFA")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("States")
+        int states;
+    }
+
+    @Name("dfa.RefinementRound")
+    @Label("DFA Refinement Round")
+    @Category("DFA")
+    @Description("One round of a partition refinement")
+    static final class RoundEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("Round")
+        int round;
+        @Label("Blocks")
+        int blocks;
+        @Label("Splits")
+        int splits;
+    }
+
+    @Name("dfa.Refinement")
+    @Label("DFA Refinement")
+    @Category("DFA")
+    @Description("A whole partition refinement")
+    static final class RefinementEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("States")
+        int states;
+        @Label("Rounds")
+        int rounds;
+        @Label("Splits")
+        int splits;
+        @Label("Blocks")
+        int blocks;
+    }
+
+    @Name("dfa.Minimization")
+    @Label("DFA Minimization")
+    @Category("DFA")
+    @Description("The state counts of one minimization")
+    static final class MinimizationEvent extends Event {
+        @Label("Mode")
+        String mode;
+        @Label("States Before")
+        int statesBefore;
+        @Label("States After Pruning")
+        int statesPruned;
+        @Label("States After")
+        int statesAfter;
+    }
+
+}
@@ -0,0 +1,191 @@
+package dfa;
+
+import java.util.*;
+
+public class LazyDFA {
+    public final NFA nfa;
+    public final int maxStates;
+
+    private final SubsetConstruction.Automaton automaton;
+    private final BitSet live;
+    private final BitSet startSet;
+    private final int k;
+
+    // The cache of materialized states. delta holds -1 for the transitions that have not been followed yet
+    private final Map<BitSet,Integer> ids = new HashMap<BitSet,Integer>();
+    private final BitSet[] sets;
+    private final BitSet acceptBits;
+    private final int[] delta;
+    private int count = 0;
+    private int startId = -1;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long flushes = 0;
+
+    /**
+     * Runs an NFA as a DFA that is only built where the input goes. A DFA state, which is a set of NFA
+     * states, is made the first time a transition reaches it, and a transition is worked out from the
+     * NFA the first time it is followed, after which it is one lookup in a flat table like delta.
+     * At most maxStates states are kept. When the cache is full the whole cache is flushed and
+     * building starts over from the current state, so memory stays bounded even for NFAs whose full
+     * DFA would be exponentially large. A LazyDFA is not thread safe
+     * @param nfa the NFA to run
+     * @param maxStates the most DFA states to keep at once, at least 2
+     */
+    public LazyDFA(NFA nfa, int maxStates){
+        if(maxStates < 2) throw new IllegalArgumentException("A lazy DFA must be able to keep at least 2 states");
+        this.nfa = nfa;
+        this.maxStates = maxStates;
+        this.automaton = nfa.automaton();
+        this.live = this.automaton.coaccessible();
+        this.startSet = this.automaton.closure(this.automaton.starts);
+        this.startSet.and(this.live);
+        this.k = nfa.alphabet.size;
+        this.sets = new BitSet[maxStates];
+        this.acceptBits = new BitSet(maxStates);
+        this.delta = new int[maxStates * this.k];
+        Arrays.fill(this.delta, -1);
+    }
+
+    /**
+     * Runs the NFA over a sequence of symbols
+     * @param symbols the input symbols
+     * @return true if the NFA accepts the input, false otherwise
+     */
+    public boolean accepts(int[] symbols){
+        int state = start();
+        for(int symbol: symbols){
+            int column = this.nfa.alphabet.column(symbol);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the NFA");
+            state = step(state, column);
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * Runs the NFA over a byte array, reading every byte as one symbol from 0 to 255
+     * @param input the input bytes
+     * @return true if the NFA accepts the input, false otherwise
+     */
+    public boolean accepts(byte[] input){
+        final Alphabet alphabet = this.nfa.alphabet;
+        int state = start();
+        for(byte b: input){
+            int column = alphabet.column(b & 0xFF);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the NFA");
+            state = step(state, column);
+        }
+        return this.acceptBits.get(state);
+    }
+
+    /**
+     * The number of DFA states in the cache right now
+     * @return the number of states
+     */
+    public int stateCount(){
+        return this.count;
+    }
+
+    /**
+     * The number of transitions that were already in the cache
+     * @return the number of hits
+     */
+    public long hits(){
+        return this.hits;
+    }
+
+    /**
+     * The number of transitions that had to be worked out from the NFA
+     * @return the number of misses
+     */
+    public long misses(){
+        return this.misses;
+    }
+
+    /**
+     * The number of times the cache was full and was flushed
+     * @return the number of flushes
+     */
+    public long flushes(){
+        return this.flushes;
+    }
+
+    /**
+     * The share of transitions that were already in the cache
+     * @return the hit rate from 0 to 1, or 0 if no transition has been followed
+     */
+    public double hitRate(){
+        long total = this.hits + this.misses;
+        return total == 0 ? 0 : (double) this.hits / total;
+    }
+
+    /**
+     * Finds the start state, making it again if a flush threw it away
+     * @return the id of the start state
+     */
+    private int start(){
+        if(this.startId < 0){
+            if(this.count == this.maxStates) flush();
+            this.startId = intern(this.startSet);
+        }
+        return this.startId;
+    }
+
+    /**
+     * Follows one transition, working it out from the NFA if it is not cached
+     * @param state the id of the current state
+     * @param column the column of the symbol
+     * @return the id of the next state
+     */
+    private int step(int state, int column){
+        int next = this.delta[state * this.k + column];
+        if(next >= 0){
+            this.hits++;
+            return next;
+        }
+        this.misses++;
+        BitSet set = this.automaton.step(this.sets[state], column);
+        set.and(this.live);
+        Integer id = this.ids.get(set);
+        if(id == null){
+            if(this.count == this.maxStates){
+                // Keep the current state, so the transition can be cached from it after the flush
+                BitSet current = this.sets[state];
+                flush();
+                state = intern(current);
+                id = this.ids.get(set);
+            }
+            if(id == null) id = intern(set);
+        }
+        this.delta[state * this.k + column] = id;
+        return id;
+    }
+
+    /**
+     * Adds a state to the cache, which must not be full
+     * @param set the set of NFA states
+     * @return the id of the new state
+     */
+    private int intern(BitSet set){
+        int id = this.count++;
+        this.ids.put(set, id);
+        this.sets[id] = set;
+        if(set.intersects(this.automaton.accepts)) this.acceptBits.set(id);
+        return id;
+    }
+
+    /**
+     * Throws away every cached state and transition
+     */
+    private void flush(){
+        this.flushes++;
+        this.ids.clear();
+        Arrays.fill(this.sets, 0, this.count, null);
+        Arrays.fill(this.delta, 0, this.count * this.k, -1);
+        this.acceptBits.clear();
+        this.count = 0;
+        this.startId = -1;
+    }
+
+}
@@ -0,0 +1,273 @@
+package dfa;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.ResourceScope;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadingTester {
+
+    /**
+     * This test is to check that a DFA written to a DFA file comes back the same, both when it is
+     * used in place through MappedDFA and when it is read back onto the heap
+     */
+    @Test
+    public void testDFAFileRoundTrip() throws IOException{
+        Random random = new Random(64);
+        Path file = Files.createTempFile("dfa", ".bin");
+        try{
+            for(int i = 0; i < 20; i++){
+                DFA DFA = RunningTester.randomDFA(random, 1 + random.nextInt(100));
+                DFAFile.write(DFA, file);
+
+                MappedDFA mapped = MappedDFA.open(file);
+                assertEquals(DFA.stateCount(), mapped.stateCount);
+                assertEquals(DFA.startId, mapped.startId);
+                for(int q = 0; q < DFA.stateCount(); q++){
+                    assertEquals(DFA.stateNames[q], mapped.stateName(q));
+                    assertEquals(DFA.acceptBits.get(q), mapped.isAccept(q));
+                    assertEquals(DFA.delta[q * 2], mapped.delta.get(q * 2));
+                    assertEquals(DFA.delta[q * 2 + 1], mapped.delta.get(q * 2 + 1));
+                }
+
+                byte[] bytes = new byte[8];
+                random.nextBytes(bytes);
+                assertEquals(DFA.accepts(bytes), mapped.accepts(bytes, 64));
+                assertTrue(DFA.equals(DFAFile.read(file)));
+            }
+
+            DFA bytes = RunningTester.endsWithDigit();
+            DFAFile.write(bytes, file);
+            assertEquals(Alphabet.BYTES, MappedDFA.open(file).alphabet);
+            assertTrue(bytes.equals(DFAFile.read(file)));
+        }finally{
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * This test is to check that a file that is not a DFA file, or whose header is corrupt, is
+     * rejected when it is opened
+     */
+    @Test
+    public void testNotADFAFile() throws IOException{
+        Path file = Files.createTempFile("dfa", ".bin");
+        try{
+            Files.write(file, new byte[100]);
+            Exception exception = assertThrows(IOException.class, () -> {
+                MappedDFA.open(file);
+            });
+            assertEquals("The given file is not a DFA file", exception.getMessage());
+
+            // A names section that runs into the transition table
+            DFAFile.write(RunningTester.endsWithDigit(), file);
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(24, ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong(32));
+            Files.write(file, bytes);
+            exception = assertThrows(IOException.class, () -> {
+                MappedDFA.open(file);
+            });
+            assertEquals("The given DFA file is corrupt", exception.getMessage());
+        }finally{
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A helper method that builds the DFA from the first minimization test, the in class example
+     * from week 3, lecture 6
+     * @return the DFA
+     */
+    public static DFA lectureDFA(){
+        String[] statesArray = new String[] {"S", "A", "B", "C", "D", "E"};
+        List states = Arrays.asList(statesArray);
+
+        String[] acceptsArray = new String[] {"D", "E"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("S", "A", 0));
+        transitions.add(new Transition("S", "B", 1));
+        transitions.add(new Transition("A", "C", 0));
+        transitions.add(new Transition("A", "D", 1));
+        transitions.add(new Transition("B", "B", 0));
+        transitions.add(new Transition("B", "C", 1));
+        transitions.add(new Transition("C", "B", 0));
+        transitions.add(new Transition("C", "C", 1));
+        transitions.add(new Transition("D", "D", 0));
+        transitions.add(new Transition("D", "E", 1));
+        transitions.add(new Transition("E", "E", 0));
+        transitions.add(new Transition("E", "E", 1));
+
+        return new DFA(states, "S", accepts, transitions);
+    }
+
+    /**
+     * A helper method to check that two DFAs have the same states, start, accept states and transitions
+     * @param expected the expected DFA
+     * @param actual the DFA to check
+     */
+    public static void assertSameDFA(DFA expected, DFA actual){
+        assertEquals(expected.listAllStates, actual.listAllStates);
+        assertEquals(expected.startState, actual.startState);
+        assertEquals(expected.listAcceptStates, actual.listAcceptStates);
+        assertEquals(expected.listTransitions, actual.listTransitions);
+    }
+
+    /**
+     * This test is to check that the line format loads the same DFA as the constructor, with
+     * states added as they are first seen, comments, and lower case names
+     */
+    @Test
+    public void testLoadText() throws IOException{
+        String text = "# week 3, lecture 6\n"
+                + "@start s\n"
+                + "@accept D E\n"
+                + "S A 0\nS B 1\nA C 0\nA D 1\n\n"
+                + "B B 0\nB C 1\nC B 0\nC C 1\n"
+                + "D D 0\nD E 1\n  e   e 0\nE E 1\n";
+        assertSameDFA(lectureDFA(), DFALoader.loadText(new StringReader(text)));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            DFALoader.loadText(new StringReader("@start S\nS S 0\n"));
+        });
+        assertEquals("A given state does not have either a 0 or a 1 transition, or both", exception.getMessage());
+    }
+
+    /**
+     * This test is to check that JSON loads the same DFA as the constructor, with transitions
+     * given as arrays and as objects, keys in any order, unknown keys skipped and escaped names,
+     * and that a missing value or a bad escape is reported with its line
+     */
+    @Test
+    public void testLoadJson() throws IOException{
+        String json = "{\"transitions\": [[\"S\", \"A\", 0], [\"S\", \"B\", 1], [\"A\", \"C\", 0], [\"A\", \"D\", 1],\n"
+                + "  {\"start\": \"B\", \"end\": \"B\", \"value\": 0}, {\"value\": 1, \"start\": \"B\", \"end\": \"C\"},\n"
+                + "  [\"C\", \"B\", 0], [\"C\", \"C\", 1], [\"D\", \"D\", 0], [\"D\", \"E\", 1], [\"E\", \"E\", 0], [\"E\", \"E\", 1]],\n"
+                + " \"comment\": {\"from\": [\"week 3\", 6, true, null]},\n"
+                + " \"start\": \"S\", \"accept\": [\"D\", \"E\"], \"states\": [\"S\", \"A\", \"B\", \"C\", \"D\", \"E\"]}";
+        assertSameDFA(lectureDFA(), DFALoader.loadJson(new StringReader(json)));
+
+        Exception exception = assertThrows(IOException.class, () -> {
+            DFALoader.loadJson(new StringReader("{\"start\": \"S\", \"transitions\": [[\"S\", \"S\"]]}"));
+        });
+        assertEquals("Malformed DFA JSON on line 1: expected ','", exception.getMessage());
+
+        exception = assertThrows(IOException.class, () -> {
+            DFALoader.loadJson(new StringReader("{\"start\": \"S\",\n \"transitions\": [{\"start\": \"S\", \"end\": \"S\"}]}"));
+        });
+        assertEquals("Malformed DFA JSON on line 2: A transition needs a value", exception.getMessage());
+
+        exception = assertThrows(IOException.class, () -> {
+            DFALoader.loadJson(new StringReader("{\"start\": \"\\u00zz\"}"));
+        });
+        assertEquals("Malformed DFA JSON on line 1: expected 4 hex digits after \\u", exception.getMessage());
+        assertSameDFA(lectureDFA(), DFALoader.loadJson(new StringReader(json.replace("\"S\"", "\"\\u0053\""))));
+    }
+
+    /**
+     * This test is to check that the String fields of a loaded DFA, which are read-only views of
+     * its compact tables, hold the same states and transitions as sets built from the input
+     */
+    @Test
+    public void testStringViews() throws IOException{
+        DFA DFA = DFALoader.loadText(new StringReader("@start S\n@accept B\nS A 0\nS B 1\nA A 0\nA B 1\nB S 0\nB B 1\n"));
+        Set<Transition> transitions = new HashSet<Transition>();
+        transitions.add(new Transition("S", "A", 0));
+        transitions.add(new Transition("S", "B", 1));
+        transitions.add(new Transition("A", "A", 0));
+        transitions.add(new Transition("A", "B", 1));
+        transitions.add(new Transition("B", "S", 0));
+        transitions.add(new Transition("B", "B", 1));
+
+        assertEquals(transitions, DFA.listTransitions);
+        assertEquals(DFA.listTransitions, transitions);
+        assertEquals(transitions.hashCode(), DFA.listTransitions.hashCode());
+        assertFalse(DFA.listTransitions.contains(new Transition("B", "A", 0)));
+        assertFalse(DFA.listTransitions.contains(new Transition("B", "B", 2)));
+        assertEquals(new HashSet<String>(Arrays.asList("S", "A", "B")), DFA.listAllStates);
+        assertEquals(new HashSet<String>(Arrays.asList("B")), DFA.listAcceptStates);
+        assertArrayEquals(new String[] {"S", "B"}, DFA.transitionTable.get("B"));
+        assertEquals(3, DFA.transitionTable.entrySet().size());
+        assertNull(DFA.transitionTable.get("C"));
+        assertThrows(UnsupportedOperationException.class, () -> DFA.listTransitions.add(new Transition("B", "A", 0)));
+        assertThrows(UnsupportedOperationException.class, () -> DFA.listAllStates.remove("S"));
+    }
+
+    /**
+     * This test is to check that an off-heap DFA runs and minimizes like the DFA it was copied from,
+     * that its minimized DFA is the canonical minimized DFA, and that a file backed DFA can be
+     * written, opened again read only or read back as a DFA, and opened from a file written by DFAFile.write
+     */
+    @Test
+    public void testOffHeapDFA() throws IOException{
+        Random random = new Random(24);
+        Path file = Files.createTempFile("dfa", ".bin");
+        try(ResourceScope scope = ResourceScope.newConfinedScope()){
+            for(int i = 0; i < 50; i++){
+                DFA DFA = RunningTester.randomDFA(random, 1 + random.nextInt(60));
+                OffHeapDFA offHeap = OffHeapDFA.copyOf(DFA, scope);
+                byte[] bytes = new byte[4];
+                random.nextBytes(bytes);
+                assertEquals(DFA.accepts(bytes), offHeap.accepts(bytes, 32));
+                assertEquals(DFA.accepts(new int[]{1, 0, 1}), offHeap.accepts(new int[]{1, 0, 1}));
+
+                OffHeapDFA minimized = offHeap.minimize(scope);
+                assertTrue(minimized.toDFA().equals(DFA.minimizeDFA(DFA).canonicalize()));
+            }
+
+            DFA endsWithDigit = RunningTester.endsWithDigit();
+            assertEquals(2, OffHeapDFA.copyOf(endsWithDigit, scope).minimize(scope).stateCount);
+
+            // The mappings are closed before the file is written again
+            try(ResourceScope mapping = ResourceScope.newConfinedScope()){
+                OffHeapDFA created = OffHeapDFA.create(file, Alphabet.BINARY, 3, mapping);
+                created.setStart(1);
+                created.setAccept(0, true);
+                created.setTransition(1, 0, 2);
+                created.setTransition(1, 1, 0);
+                created.setTransition(2, 1, 0);
+                created.setTransition(2, 0, 2);
+                created.force();
+                OffHeapDFA opened = OffHeapDFA.open(file, mapping);
+                assertEquals(1, opened.startId());
+                assertTrue(opened.accepts(new int[]{0, 0, 1}));
+                assertFalse(opened.accepts(new int[]{0, 0}));
+                assertEquals(2, opened.minimize(scope).stateCount);
+                assertThrows(IllegalArgumentException.class, () -> created.setTransition(3, 0, 0));
+                assertThrows(IllegalArgumentException.class, () -> created.setTransition(0, 2, 0));
+
+                DFA read = DFAFile.read(file);
+                assertEquals(Arrays.asList("Q0", "Q1", "Q2"), Arrays.asList(read.stateNames));
+                assertEquals("Q1", read.startState);
+                assertTrue(read.isEquivalent(opened.toDFA()));
+                assertTrue(read.equals(MappedDFA.open(file).toDFA()));
+            }
+
+            // A transition out of the table is rejected when the file is opened
+            try(ResourceScope mapping = ResourceScope.newConfinedScope()){
+                OffHeapDFA created = OffHeapDFA.create(file, Alphabet.BINARY, 3, mapping);
+                MemoryAccess.setIntAtIndex(created.delta, 4, ByteOrder.LITTLE_ENDIAN, 3);
+                created.force();
+                Exception exception = assertThrows(IOException.class, () -> OffHeapDFA.open(file, mapping));
+                assertEquals("The given DFA file is corrupt", exception.getMessage());
+            }
+
+            DFA DFA = RunningTester.randomDFA(random, 100);
+            DFAFile.write(DFA, file);
+            assertTrue(OffHeapDFA.open(file, scope).toDFA().isEquivalent(DFA));
+        }finally{
+            Files.delete(file);
+        }
+    }
+
+}
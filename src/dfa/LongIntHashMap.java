@@ -0,0 +1,96 @@
+package dfa;
+
+import java.util.*;
+
+final class LongIntHashMap {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+
+    /**
+     * A map from non-negative longs to ints with open addressing and linear probing, so looking up a
+     * packed pair of ids costs no boxing and no allocation
+     * @param expected the number of entries to make room for
+     */
+    LongIntHashMap(int expected){
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) * 2;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * The number of entries
+     * @return the number of entries
+     */
+    int size(){
+        return this.size;
+    }
+
+    /**
+     * Looks a key up
+     * @param key the key, which must not be negative
+     * @return the value of the key, or -1 if it is not in the map
+     */
+    int get(long key){
+        int mask = this.keys.length - 1;
+        for(int i = slot(key, mask); ; i = (i + 1) & mask){
+            if(this.keys[i] == key) return this.values[i];
+            if(this.keys[i] == EMPTY) return -1;
+        }
+    }
+
+    /**
+     * Adds a key with the next value, size(), if it is not in the map yet
+     * @param key the key, which must not be negative
+     * @return the value of the key, which is the old size of the map if the key was just added
+     */
+    int intern(long key){
+        int mask = this.keys.length - 1;
+        int i = slot(key, mask);
+        while(this.keys[i] != EMPTY){
+            if(this.keys[i] == key) return this.values[i];
+            i = (i + 1) & mask;
+        }
+        int value = this.size++;
+        this.keys[i] = key;
+        this.values[i] = value;
+        if(this.size * 2 > this.keys.length) grow();
+        return value;
+    }
+
+    /**
+     * Doubles the table and puts every entry back
+     */
+    private void grow(){
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = new long[oldKeys.length * 2];
+        this.values = new int[oldKeys.length * 2];
+        Arrays.fill(this.keys, EMPTY);
+        int mask = this.keys.length - 1;
+        for(int j = 0; j < oldKeys.length; j++){
+            if(oldKeys[j] == EMPTY) continue;
+            int i = slot(oldKeys[j], mask);
+            while(this.keys[i] != EMPTY) i = (i + 1) & mask;
+            this.keys[i] = oldKeys[j];
+            this.values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * The first slot to probe for a key, from the MurmurHash3 finalizer
+     * @param key the key
+     * @param mask the table length minus one
+     * @return the slot
+     */
+    private static int slot(long key, int mask){
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+}
@@ -0,0 +1,157 @@
+package dfa;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedDFA {
+    public final int stateCount;
+    public final Alphabet alphabet;
+    public final int alphabetSize;
+    public final int startId;
+    public final IntBuffer delta;
+    public final LongBuffer acceptBits;
+
+    private final MappedByteBuffer file;
+    private final IntBuffer nameOffsets;
+    private final int namesStart;
+
+    /**
+     * A DFA that is used in place from a memory mapped DFA file, without copying its tables onto
+     * the heap. The delta and accept views read the mapped pages directly, and state names are
+     * only decoded when they are asked for. ByteBuffers are indexed with ints, so files over 2GB
+     * cannot be mapped this way
+     * @param file the mapped file
+     * @param stateCount the number of states
+     * @param alphabet the alphabet
+     * @param startId the id of the start state
+     * @param namesOffset the offset of the names section
+     * @param deltaOffset the offset of the delta section
+     * @param acceptOffset the offset of the accept section
+     */
+    private MappedDFA(MappedByteBuffer file, int stateCount, Alphabet alphabet, int startId, int namesOffset, int deltaOffset, int acceptOffset){
+        this.file = file;
+        this.stateCount = stateCount;
+        this.alphabet = alphabet;
+        this.alphabetSize = alphabet.size;
+        this.startId = startId;
+        this.nameOffsets = file.duplicate().position(namesOffset).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().limit(stateCount + 1);
+        this.namesStart = namesOffset + 4 * (stateCount + 1);
+        this.delta = file.duplicate().position(deltaOffset).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().limit(stateCount * alphabetSize);
+        this.acceptBits = file.duplicate().position(acceptOffset).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().limit((stateCount + 63) / 64);
+    }
+
+    /**
+     * Maps a file written by DFAFile.write. Only the header is read and checked, so opening takes
+     * the same time no matter how large the DFA is, up to the 2GB that one ByteBuffer can map.
+     * OffHeapDFA.open maps larger files
+     * @param path the file to map
+     * @return the DFA in the file
+     * @throws IOException if the file cannot be mapped or is not a DFA file
+     */
+    public static MappedDFA open(Path path) throws IOException{
+        MappedByteBuffer file;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            if(channel.size() < DFAFile.HEADER_BYTES) throw new IOException("The given file is not a DFA file");
+            if(channel.size() > Integer.MAX_VALUE) throw new IOException("The given DFA file is too large to map at once");
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        if(file.getInt(0) != DFAFile.MAGIC) throw new IOException("The given file is not a DFA file");
+        int version = file.getInt(4);
+        if(version != 1 && version != DFAFile.VERSION) throw new IOException("The given DFA file has an unsupported version");
+        int stateCount = file.getInt(8);
+        int alphabetSize = file.getInt(12);
+        int startId = file.getInt(16);
+        long namesOffset = file.getLong(24);
+        long deltaOffset = file.getLong(32);
+        long acceptOffset = file.getLong(40);
+        long fileLength = file.getLong(48);
+        long alphabetOffset = version == 1 ? fileLength : file.getLong(56);
+        if(fileLength != file.capacity() || alphabetSize < 1 || (version == 1 && alphabetSize != DFA.ALPHABET_SIZE) || startId < 0 || startId >= stateCount
+                || namesOffset < DFAFile.HEADER_BYTES || namesOffset + 4L * (stateCount + 1) > deltaOffset
+                || deltaOffset + 4L * stateCount * alphabetSize > acceptOffset || acceptOffset + 8L * ((stateCount + 63) / 64) > alphabetOffset
+                || (version > 1 && alphabetOffset + 4L * alphabetSize != fileLength)){
+            throw new IOException("The given DFA file is corrupt");
+        }
+
+        Alphabet alphabet = Alphabet.BINARY;
+        if(version > 1){
+            int[] symbols = new int[alphabetSize];
+            for(int a = 0; a < alphabetSize; a++) symbols[a] = file.getInt((int) alphabetOffset + 4 * a);
+            try{
+                alphabet = Alphabet.of(symbols);
+            }catch(IllegalArgumentException e){
+                throw new IOException("The given DFA file is corrupt");
+            }
+        }
+        return new MappedDFA(file, stateCount, alphabet, startId, (int) namesOffset, (int) deltaOffset, (int) acceptOffset);
+    }
+
+    /**
+     * Tests whether a state is an accept state
+     * @param state the id of the state
+     * @return true if the state is an accept state, false otherwise
+     */
+    public boolean isAccept(int state){
+        return (this.acceptBits.get(state >>> 6) & (1L << state)) != 0;
+    }
+
+    /**
+     * Decodes the name of a state from the string table
+     * @param state the id of the state
+     * @return the name of the state
+     */
+    public String stateName(int state){
+        int from = this.nameOffsets.get(state);
+        int to = this.nameOffsets.get(state + 1);
+        byte[] bytes = new byte[to - from];
+        this.file.get(this.namesStart + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the DFA over the first bitLength bits of a byte array, reading the mapped transition table in place
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits, long bitLength){
+        if(!this.alphabet.isBinary()) throw new IllegalArgumentException("This method only works on DFAs over the binary alphabet");
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        final IntBuffer delta = this.delta;
+        int state = this.startId;
+        for(long bit = 0; bit < bitLength; bit++){
+            state = delta.get(state * DFA.ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1));
+        }
+        return isAccept(state);
+    }
+
+    /**
+     * Copies the whole DFA onto the heap, decoding every state name
+     * @return the DFA
+     */
+    public DFA toDFA(){
+        DFA.Builder builder = new DFA.Builder(this.alphabet);
+        String[] names = new String[this.stateCount];
+        for(int q = 0; q < this.stateCount; q++){
+            names[q] = stateName(q);
+            builder.state(names[q]);
+        }
+        builder.start(names[this.startId]);
+        for(int q = 0; q < this.stateCount; q++){
+            if(isAccept(q)) builder.accept(names[q]);
+            for(int column = 0; column < this.alphabetSize; column++){
+                builder.transition(names[q], names[this.delta.get(q * this.alphabetSize + column)], this.alphabet.symbol(column));
+            }
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,148 @@
+package dfa;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+public class MappedScanner {
+    public static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    public final DFA dfa;
+    public final StrideTable table;
+    public final long segmentBytes;
+    public final LongAdder totalBytes = new LongAdder();
+    public final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Scans files with a binary DFA, mapping them one gigabyte at a time
+     * @param dfa the DFA to run, ideally minimized
+     */
+    public MappedScanner(DFA dfa){
+        this(dfa, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Scans files with a binary DFA without reading them onto the heap. Each file is memory mapped
+     * in segments of at most segmentBytes bytes, so files larger than the 2 GB a single
+     * MappedByteBuffer can hold work too, and the stride table of the DFA is stepped directly
+     * over the mapped bytes. The bits of a file are read in the same order as DFA.accepts(byte[])
+     * @param dfa the DFA to run, ideally minimized
+     * @param segmentBytes the most bytes mapped at once, at most Integer.MAX_VALUE
+     */
+    public MappedScanner(DFA dfa, long segmentBytes){
+        if(segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("The segment size must be between 1 and Integer.MAX_VALUE bytes");
+        this.dfa = dfa;
+        this.table = new StrideTable(dfa);
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Runs the DFA over every bit of a file
+     * @param file the file to scan
+     * @return the result of the scan
+     * @throws IOException if the file cannot be mapped
+     */
+    public Result scan(Path file) throws IOException{
+        return scan(file, null);
+    }
+
+    /**
+     * Runs the DFA over every bit of a file, and reports every offset where the DFA is in an accept
+     * state. An offset is the number of bits read so far, so 0 is reported if the start state
+     * accepts, and 8 * size if the whole file is accepted. Bytes that do not pass through an accept
+     * state still take one lookup each
+     * @param file the file to scan
+     * @param acceptOffsets called with every accepted offset in increasing order, or null to only report acceptance
+     * @return the result of the scan
+     * @throws IOException if the file cannot be mapped
+     */
+    public Result scan(Path file, LongConsumer acceptOffsets) throws IOException{
+        final int[] stride8 = this.table.stride8;
+        final byte[] firstAccept8 = this.table.firstAccept8;
+        long begin = System.nanoTime();
+        long acceptCount = 0;
+        int state = this.dfa.startId;
+        if(acceptOffsets != null && this.dfa.acceptBits.get(state)){
+            acceptOffsets.accept(0);
+            acceptCount++;
+        }
+
+        long size;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            size = channel.size();
+            for(long position = 0; position < size; position += this.segmentBytes){
+                int length = (int) Math.min(this.segmentBytes, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if(acceptOffsets == null){
+                    for(int i = 0; i < length; i++) state = stride8[(state << 8) | (segment.get(i) & 0xff)];
+                    continue;
+                }
+                for(int i = 0; i < length; i++){
+                    int b = segment.get(i) & 0xff;
+                    int index = (state << 8) | b;
+                    if(firstAccept8[index] != 0){
+                        // Step through this byte one bit at a time to find every accepted offset in it
+                        long offset = (position + i) * 8;
+                        for(int shift = 7; shift >= 0; shift--){
+                            state = this.dfa.delta[state * DFA.ALPHABET_SIZE + ((b >>> shift) & 1)];
+                            offset++;
+                            if(this.dfa.acceptBits.get(state)){
+                                acceptOffsets.accept(offset);
+                                acceptCount++;
+                            }
+                        }
+                    }else{
+                        state = stride8[index];
+                    }
+                }
+            }
+        }
+
+        long nanos = System.nanoTime() - begin;
+        this.totalBytes.add(size);
+        this.totalNanos.add(nanos);
+        return new Result(this.dfa.acceptBits.get(state), state, acceptOffsets == null ? -1 : acceptCount, size, nanos);
+    }
+
+    /**
+     * Gets the throughput over every scan this scanner has run
+     * @return the number of bytes scanned per second, or 0 if nothing was scanned yet
+     */
+    public double bytesPerSecond(){
+        long nanos = this.totalNanos.sum();
+        return nanos == 0 ? 0 : this.totalBytes.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * The outcome of one scan: whether the file was accepted, the state it ended in, how many accepted
+     * offsets were reported (or -1 if none were asked for), and the bytes and time it took
+     */
+    public static final class Result {
+        public final boolean accepted;
+        public final int finalState;
+        public final long acceptCount;
+        public final long bytes;
+        public final long nanos;
+
+        Result(boolean accepted, int finalState, long acceptCount, long bytes, long nanos){
+            this.accepted = accepted;
+            this.finalState = finalState;
+            this.acceptCount = acceptCount;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Gets the throughput of this scan
+         * @return the number of bytes scanned per second
+         */
+        public double bytesPerSecond(){
+            return this.nanos == 0 ? 0 : this.bytes * 1e9 / this.nanos;
+        }
+    }
+
+}
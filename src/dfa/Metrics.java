@@ -0,0 +1,78 @@
+package dfa;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public interface Metrics {
+
+    /**
+     * The Metrics that throws everything away. It is the default, and while it is set the
+     * instrumented code skips even reading the clock
+     */
+    Metrics NOOP = new Metrics(){
+        public void increment(String counter, long amount){}
+        public void record(String histogram, long value){}
+    };
+
+    /**
+     * Adds to a counter
+     * @param counter the name of the counter
+     * @param amount the amount to add
+     */
+    void increment(String counter, long amount);
+
+    /**
+     * Records one value in a histogram
+     * @param histogram the name of the histogram
+     * @param value the value
+     */
+    void record(String histogram, long value);
+
+    /**
+     * A Metrics that keeps every counter and histogram in memory, for tests and for exporting to a
+     * real registry now and then. Histograms keep their count, sum, min and max. It is thread safe
+     */
+    class Recorder implements Metrics {
+        private final Map<String,LongAdder> counters = new ConcurrentHashMap<String,LongAdder>();
+        private final Map<String,LongSummaryStatistics> histograms = new ConcurrentHashMap<String,LongSummaryStatistics>();
+
+        public void increment(String counter, long amount){
+            this.counters.computeIfAbsent(counter, name -> new LongAdder()).add(amount);
+        }
+
+        public void record(String histogram, long value){
+            LongSummaryStatistics statistics = this.histograms.computeIfAbsent(histogram, name -> new LongSummaryStatistics());
+            synchronized(statistics){
+                statistics.accept(value);
+            }
+        }
+
+        /**
+         * The value of a counter
+         * @param counter the name of the counter
+         * @return the sum of everything added to it, or 0 if nothing was
+         */
+        public long counter(String counter){
+            LongAdder adder = this.counters.get(counter);
+            return adder == null ? 0 : adder.sum();
+        }
+
+        /**
+         * A copy of a histogram
+         * @param histogram the name of the histogram
+         * @return the count, sum, min and max of the values recorded, which are all empty if none were
+         */
+        public LongSummaryStatistics histogram(String histogram){
+            LongSummaryStatistics copy = new LongSummaryStatistics();
+            LongSummaryStatistics statistics = this.histograms.get(histogram);
+            if(statistics != null){
+                synchronized(statistics){
+                    copy.combine(statistics);
+                }
+            }
+            return copy;
+        }
+    }
+
+}
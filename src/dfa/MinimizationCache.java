@@ -0,0 +1,170 @@
+package dfa;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MinimizationCache {
+    public final int maximumSize;
+    public final LongAdder hits = new LongAdder();
+    public final LongAdder misses = new LongAdder();
+    public final LongAdder evictions = new LongAdder();
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<Key, CompletableFuture<Entry>>();
+
+    /**
+     * Constructor for a cache of minimized DFAs. The cache is keyed by the structural fingerprint of
+     * the DFA given to it, so DFAs that only differ in the names or order of their states share one
+     * entry, and once it is full the least recently used entry is evicted
+     * @param maximumSize the most minimized DFAs the cache holds
+     */
+    public MinimizationCache(int maximumSize){
+        if(maximumSize < 1) throw new IllegalArgumentException("The maximum size of the cache must be at least 1");
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest){
+                if(size() <= MinimizationCache.this.maximumSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Minimizes a DFA, or returns the cached result for a structurally identical DFA. When several
+     * threads ask for the same DFA at once, one of them minimizes it and the others wait for its result.
+     * Because structurally identical DFAs can name their states differently, the result is the
+     * canonical form of the minimized DFA, with states named Q0, Q1... in breadth first order.
+     * The cache only holds the tables of the result, and every call gets its own DFA built from them,
+     * so a caller changing the DFA it was given cannot change what later calls get
+     * @param dfa the DFA to minimize
+     * @return a new canonical minimized DFA
+     */
+    public DFA minimize(DFA dfa){
+        Key key = new Key(CanonicalForm.fingerprint128(dfa));
+        Entry cached = cached(key);
+        if(cached != null) return cached.build();
+
+        CompletableFuture<Entry> mine = new CompletableFuture<Entry>();
+        CompletableFuture<Entry> running = this.inFlight.putIfAbsent(key, mine);
+        if(running != null){
+            this.hits.increment();
+            try{
+                return running.join().build();
+            }catch(CompletionException e){
+                if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+
+        try{
+            // Another thread may have finished this DFA between the first lookup and putIfAbsent
+            Entry result = cached(key);
+            if(result == null){
+                this.misses.increment();
+                result = new Entry(CanonicalForm.canonicalize(dfa.minimizeDFA(dfa)));
+                synchronized(this.entries){
+                    this.entries.put(key, result);
+                }
+            }
+            mine.complete(result);
+            return result.build();
+        }catch(RuntimeException e){
+            mine.completeExceptionally(e);
+            throw e;
+        }finally{
+            this.inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * The number of minimized DFAs in the cache
+     * @return the number of entries
+     */
+    public int size(){
+        synchronized(this.entries){
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Removes every entry from the cache. The counters are kept
+     */
+    public void clear(){
+        synchronized(this.entries){
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Looks a key up, counting a hit if it is found
+     * @param key the fingerprint of a DFA
+     * @return the cached tables of the minimized DFA, or null if there are none
+     */
+    private Entry cached(Key key){
+        Entry cached;
+        synchronized(this.entries){
+            cached = this.entries.get(key);
+        }
+        if(cached != null) this.hits.increment();
+        return cached;
+    }
+
+    /**
+     * The tables of a canonical minimized DFA, which are never handed out, only copied. State i is
+     * named Qi and the start state is Q0, as CanonicalForm.canonicalize names them
+     */
+    private static final class Entry {
+        private final Alphabet alphabet;
+        private final String[] names;
+        private final Map<String,Integer> ids;
+        private final int startId;
+        private final int[] delta;
+        private final BitSet accepts;
+
+        private Entry(DFA canonical){
+            this.alphabet = canonical.alphabet;
+            this.names = canonical.stateNames.clone();
+            this.ids = new HashMap<String,Integer>(canonical.stateIds);
+            this.startId = canonical.startId;
+            this.delta = canonical.delta.clone();
+            this.accepts = (BitSet) canonical.acceptBits.clone();
+        }
+
+        /**
+         * Builds a new DFA from copies of the tables, which were checked when the entry was made
+         * @return the canonical minimized DFA
+         */
+        private DFA build(){
+            return new DFA(this.alphabet, this.names.clone(), new HashMap<String,Integer>(this.ids), this.startId, this.delta.clone(), (BitSet) this.accepts.clone());
+        }
+    }
+
+    /**
+     * A 128 bit structural fingerprint used as a map key
+     */
+    private static final class Key {
+        private final long low;
+        private final long high;
+
+        private Key(long[] fingerprint){
+            this.low = fingerprint[0];
+            this.high = fingerprint[1];
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if(!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return this.low == key.low && this.high == key.high;
+        }
+
+        @Override
+        public int hashCode(){
+            return (int) (this.low ^ (this.low >>> 32));
+        }
+    }
+
+}
@@ -0,0 +1,755 @@
+package dfa;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.nio.file.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinimizingTester {
+
+    /**
+     * This test is to check for basic DFA creation. It check that all states and transitions are capitalized
+     * so that there's never an issue in equality checking. It checks for the removal of duplicate states
+     * in the list of all states. It checks that duplicate states, accept states, and transition states are removed.
+     * It verifies that the start, accept states, and transition states are in the list of all states, and that
+     * they're all capitalized. It also verifies that the transitions occur only between states that exist, and
+     * that the values are binary as is consistent with this programs alphabet.
+     */
+    @Test
+    public void testBasicDFACreation(){
+        String[] statesArray = new String[] {"a", "b", "b", "c", "d", "e"};
+        List badStates = Arrays.asList(statesArray);
+
+        String badStart = "a";
+
+        String[] acceptsArray = new String[] {"d", "e", "e"};
+        List badAccepts = Arrays.asList(acceptsArray);
+
+        List<Transition> badTransitions = new ArrayList<Transition>();
+        badTransitions.add(new Transition("a", "b", 0));
+        badTransitions.add(new Transition("a", "b", 1));
+        badTransitions.add(new Transition("b", "c", 0));
+        badTransitions.add(new Transition("b", "c", 1));
+        badTransitions.add(new Transition("c", "d", 0));
+        badTransitions.add(new Transition("c", "d", 1));
+        badTransitions.add(new Transition("d", "e", 0));
+        badTransitions.add(new Transition("d", "e", 1));
+        badTransitions.add(new Transition("e", "e", 0));
+        badTransitions.add(new Transition("e", "e", 1));
+
+        String[] goodStatesArray = new String[] {"A", "B", "C", "D", "E"};
+        List goodStates = Arrays.asList(goodStatesArray);
+
+        String goodStart = "A";
+
+        String[] goodAcceptsArray = new String[] {"D", "E"};
+        List goodAccepts = Arrays.asList(goodAcceptsArray);
+
+        List<Transition> goodTransitions = new ArrayList<Transition>();
+        List<Transition> transitions = new ArrayList<Transition>();
+        goodTransitions.add(new Transition("a", "b", 0));
+        goodTransitions.add(new Transition("a", "b", 1));
+        goodTransitions.add(new Transition("b", "c", 0));
+        goodTransitions.add(new Transition("b", "c", 1));
+        goodTransitions.add(new Transition("c", "d", 0));
+        goodTransitions.add(new Transition("c", "d", 1));
+        goodTransitions.add(new Transition("d", "e", 0));
+        goodTransitions.add(new Transition("d", "e", 1));
+        goodTransitions.add(new Transition("e", "e", 0));
+        goodTransitions.add(new Transition("e", "e", 1));
+
+        DFA badDFA = new DFA(badStates, badStart, badAccepts, badTransitions);
+        DFA goodDFA = new DFA(goodStates, goodStart, goodAccepts, goodTransitions);
+
+        assertTrue(badDFA.equals(goodDFA), "DFAs should be equal, check constructor for errors");
+    }
+
+    /**
+     * This test is to check for illegal transitions. An illegal transition is namely a state
+     * that has more than one "0" or more than one "1" transition value.
+     */
+    @Test
+    public void testForIllegalTransitions(){
+        String[] statesArray = new String[] {"a", "b", "b", "c", "d", "e"};
+        List states = Arrays.asList(statesArray);
+
+        String start = "a";
+
+        String[] acceptsArray = new String[] {"d", "e"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "b", 1));
+        transitions.add(new Transition("b", "c", 0));
+        transitions.add(new Transition("a", "e", 0));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            DFA DFA = new DFA(states, start, accepts, transitions);
+        });
+
+        String expectedMessage = "There is an illegal transition in the given list of transitions";
+        assertTrue(expectedMessage.equals(exception.getMessage()), "The correct exception was not thrown");
+    }
+
+    /**
+     * This test is to check for duplicate transitions in the given list of transitions.
+     */
+    @Test
+    public void testForDuplicateTransitions(){
+        String[] statesArray = new String[] {"a", "b", "b", "c", "d", "e"};
+        List states = Arrays.asList(statesArray);
+
+        String start = "a";
+
+        String[] acceptsArray = new String[] {"d", "e"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "b", 1));
+        transitions.add(new Transition("b", "c", 0));
+        transitions.add(new Transition("a", "b", 0));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            DFA DFA = new DFA(states, start, accepts, transitions);
+        });
+
+        String expectedMessage = "There is a duplicate transition in the given list of transitions";
+        assertTrue(expectedMessage.equals(exception.getMessage()), "The correct exception was not thrown");
+    }
+
+    /**
+     * This test is to check that a transition that clashes with an earlier one is reported as
+     * an illegal transition only after every duplicate in the list has been checked, the same way
+     * the constructor always has, and that the Builder gives the same errors as the constructor.
+     */
+    @Test
+    public void testBuilderErrorsMatchConstructor(){
+        List states = Arrays.asList(new String[] {"a", "b", "c"});
+        List accepts = Arrays.asList(new String[] {"c"});
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "c", 0));
+        transitions.add(new Transition("a", "c", 0));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            DFA DFA = new DFA(states, "a", accepts, transitions);
+        });
+        assertEquals("There is a duplicate transition in the given list of transitions", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new DFA.Builder().state("a").state("b").start("a").transition("a", "b", 0).transition("a", "a", 0).transition("a", "b", 1).transition("b", "b", 0).transition("b", "b", 1).build();
+        });
+        assertEquals("There is an illegal transition in the given list of transitions", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new DFA.Builder().state("a").start("a").transition("a", "z", 0);
+        });
+        assertEquals("The given list of transitions contains an illegal transition", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new DFA.Builder().state("a").accept("b");
+        });
+        assertEquals("A given accept state does not exist in the given list of all states", exception.getMessage());
+
+        DFA built = new DFA.Builder().state("a").state("b").start("A").accept("b")
+                .transition("a", "b", 0).transition("a", "a", 1).transition("b", "b", 0).transition("b", "a", 1).build();
+        List<Transition> same = new ArrayList<Transition>();
+        same.add(new Transition("a", "b", 0));
+        same.add(new Transition("a", "a", 1));
+        same.add(new Transition("b", "b", 0));
+        same.add(new Transition("b", "a", 1));
+        assertTrue(built.equals(new DFA(Arrays.asList(new String[] {"a", "b"}), "a", Arrays.asList(new String[] {"b"}), same)));
+    }
+
+    /**
+     * A helper method to determine if two transition tables are equal
+     * @param one the first transition table
+     * @param two the second transition table
+     * @return true if the transition tables are equal, false otherwise
+     */
+    public boolean transitionTablesAreEqual(Map<String,String[]> one, Map<String,String[]> two){
+        ArrayList<String> onesTT = new ArrayList<String>();
+        ArrayList<String> twosTT = new ArrayList<String>();
+
+        for (Map.Entry<String,String[]> entry : one.entrySet())
+            onesTT.add(entry.getKey() + " " + entry.getValue()[0] + " " + entry.getValue()[1]);
+
+        for (Map.Entry<String,String[]> entry : two.entrySet())
+            twosTT.add(entry.getKey() + " " + entry.getValue()[0] + " " + entry.getValue()[1]);
+
+        return onesTT.equals(twosTT);
+    }
+
+    /**
+     * This test is to check for the creation of a valid transition table.
+     */
+    @Test
+    public void testCreateTransitionTable(){
+        String[] statesArray = new String[] {"a", "b", "b", "c", "d", "e"};
+        List states = Arrays.asList(statesArray);
+
+        String start = "a";
+
+        String[] acceptsArray = new String[] {"d", "e"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "b", 1));
+        transitions.add(new Transition("b", "c", 0));
+        transitions.add(new Transition("b", "c", 1));
+        transitions.add(new Transition("c", "d", 0));
+        transitions.add(new Transition("c", "d", 1));
+        transitions.add(new Transition("d", "e", 0));
+        transitions.add(new Transition("d", "e", 1));
+        transitions.add(new Transition("e", "e", 0));
+        transitions.add(new Transition("e", "e", 1));
+
+        DFA DFA = new DFA(states, start, accepts, transitions);
+
+        Map<String,String[]> correctTransitionTable = new HashMap<String,String[]>();
+        correctTransitionTable.put("A",new String[]{"B", "B"});
+        correctTransitionTable.put("B",new String[]{"C", "C"});
+        correctTransitionTable.put("C",new String[]{"D", "D"});
+        correctTransitionTable.put("D",new String[]{"E", "E"});
+        correctTransitionTable.put("E",new String[]{"E", "E"});
+
+    assertTrue(transitionTablesAreEqual(DFA.transitionTable, correctTransitionTable));
+    }
+
+    /**
+     * This test is to check that the compact tables agree with the String transition table,
+     * and that state names and ids map back and forth.
+     */
+    @Test
+    public void testCreateCompactTables(){
+        String[] statesArray = new String[] {"a", "b", "c", "d", "e"};
+        List states = Arrays.asList(statesArray);
+
+        String[] acceptsArray = new String[] {"d", "e"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "c", 1));
+        transitions.add(new Transition("b", "c", 0));
+        transitions.add(new Transition("b", "d", 1));
+        transitions.add(new Transition("c", "d", 0));
+        transitions.add(new Transition("c", "a", 1));
+        transitions.add(new Transition("d", "e", 0));
+        transitions.add(new Transition("d", "d", 1));
+        transitions.add(new Transition("e", "e", 0));
+        transitions.add(new Transition("e", "a", 1));
+
+        DFA dfa = new DFA(states, "a", accepts, transitions);
+
+        assertEquals(5, dfa.stateCount());
+        assertEquals("A", dfa.stateNames[dfa.startId]);
+        for(String state: dfa.listAllStates){
+            int id = dfa.stateIds.get(state);
+            assertEquals(state, dfa.stateNames[id]);
+            assertEquals(dfa.transitionTable.get(state)[0], dfa.stateNames[dfa.delta[id * DFA.ALPHABET_SIZE]]);
+            assertEquals(dfa.transitionTable.get(state)[1], dfa.stateNames[dfa.delta[id * DFA.ALPHABET_SIZE + 1]]);
+            assertEquals(dfa.listAcceptStates.contains(state), dfa.acceptBits.get(id));
+        }
+    }
+
+    /**
+     * This test is to check that an error is thrown if the DFA is incomplete;
+     * meaning that not every state has both a 0 and a 1 transition
+     */
+    @Test
+    public void testIncompleteDFA(){
+        String[] statesArray = new String[] {"a", "b", "b", "c", "d", "e"};
+        List states = Arrays.asList(statesArray);
+
+        String start = "a";
+
+        String[] acceptsArray = new String[] {"d", "e"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("a", "b", 0));
+        transitions.add(new Transition("a", "b", 1));
+        transitions.add(new Transition("b", "c", 0));
+        transitions.add(new Transition("b", "c", 1));
+        transitions.add(new Transition("c", "d", 0));
+        transitions.add(new Transition("c", "d", 1));
+        transitions.add(new Transition("d", "e", 0));
+        transitions.add(new Transition("d", "e", 1));
+        transitions.add(new Transition("e", "e", 0));
+        // this will be the error -> transitions.add(new Transition("e", "e", 1));
+
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            DFA DFA = new DFA(states, start, accepts, transitions);
+        });
+
+        String expectedMessage = "A given state does not have either a 0 or a 1 transition, or both";
+        assertTrue(expectedMessage.equals(exception.getMessage()), "The correct exception was not thrown");
+    }
+
+    /**
+     * This test is to check that a list of strings is correctly
+     * separated into a list of lists of strings to store the levels
+     * of equivalence during DFA minimization
+     */
+    @Test
+    public void testOpenEquivalenceTree(){
+        final String SEPARATOR = "...";
+        String[] toadd = new String[]{"D", "E", SEPARATOR, "A", "B", "S", "C"};
+        List<String> complied = Arrays.asList(toadd);
+        List<List> opened = DFA.openEquivalenceTree(complied);
+
+        String correctAnswer = "DE...ABSC";
+        String answerToTest = "";
+        for(List<String> list : opened){
+            for(String str: list){
+                answerToTest+= str;
+            }
+            answerToTest += SEPARATOR;
+        }
+        answerToTest = answerToTest.substring(0, answerToTest.length() - 3);
+
+        assertEquals(correctAnswer, answerToTest);
+    }
+
+    /**
+     * This test is to check that a list of lists of strings is correctly
+     * compiled into a list strings to store the levels
+     * of equivalence during DFA minimization
+     */
+    @Test
+    public void testcloseEquivalenceTree(){
+        final String SEPARATOR = "...";
+        String[] toadd = new String[]{"E", "G", SEPARATOR, "K", "M", "N", SEPARATOR, "A"};
+        List<String> correctAnswer = Arrays.asList(toadd);
+
+        List<List> open = new  ArrayList<List>();
+
+        List<String> list1 = new ArrayList<String>();
+        list1.add("E");
+        list1.add("G");
+        List<String> list2 = new ArrayList<String>();
+        list2.add("K");
+        list2.add("M");
+        list2.add("N");
+        List<String> list3 = new ArrayList<String>();
+        list3.add("A");
+
+        open.add(list1);
+        open.add(list2);
+        open.add(list3);
+
+        List<String> answerToTest = DFA.closeEquivalenceTree(open);
+
+        assertEquals(correctAnswer, answerToTest);
+    }
+
+    /**
+     * This is the first minimization test, it is modeled after the in class example
+     * from week 3, lecture 6. The example can been seen in its entirety in the README
+     */
+    @Test
+    public void firstDFAMinimizationTest(){
+        String[] statesArray = new String[] {"S", "A", "B", "C", "D", "E"};
+        List largeStates = Arrays.asList(statesArray);
+
+        String largeStart = "S";
+
+        String[] acceptsArray = new String[] {"D", "E"};
+        List largeAccepts = Arrays.asList(acceptsArray);
+
+        List<Transition> largeTransitions = new ArrayList<Transition>();
+        largeTransitions.add(new Transition("S", "A", 0));
+        largeTransitions.add(new Transition("S", "B", 1));
+        largeTransitions.add(new Transition("A", "C", 0));
+        largeTransitions.add(new Transition("A", "D", 1));
+        largeTransitions.add(new Transition("B", "B", 0));
+        largeTransitions.add(new Transition("B", "C", 1));
+        largeTransitions.add(new Transition("C", "B", 0));
+        largeTransitions.add(new Transition("C", "C", 1));
+        largeTransitions.add(new Transition("D", "D", 0));
+        largeTransitions.add(new Transition("D", "E", 1));
+        largeTransitions.add(new Transition("E", "E", 0));
+        largeTransitions.add(new Transition("E", "E", 1));
+
+        DFA largeDFA = new DFA(largeStates, largeStart, largeAccepts, largeTransitions);
+
+        String[] minStatesArray = new String[] {"S", "A", "BC", "DE"};
+        List minStates = Arrays.asList(minStatesArray);
+
+        String minStart = "S";
+
+        String[] minAcceptsArray = new String[] {"DE"};
+        List minAccepts = Arrays.asList(minAcceptsArray);
+
+        List<Transition> minTransitions = new ArrayList<Transition>();
+        minTransitions.add(new Transition("S", "A", 0));
+        minTransitions.add(new Transition("S", "BC", 1));
+        minTransitions.add(new Transition("A", "BC", 0));
+        minTransitions.add(new Transition("A", "DE", 1));
+        minTransitions.add(new Transition("BC", "BC", 0));
+        minTransitions.add(new Transition("BC", "BC", 1));
+        minTransitions.add(new Transition("DE", "DE", 0));
+        minTransitions.add(new Transition("DE", "DE", 1));
+
+        DFA minimizedDFA = new DFA(minStates, minStart, minAccepts, minTransitions);
+
+        assertTrue(minimizedDFA.equals(largeDFA.minimizeDFA(largeDFA)));
+    }
+
+    /**
+     * This is the second minimization test. It is modeled after question 2, from quiz 2.
+     * The example can been seen in its entirety in the README
+     */
+    @Test
+    public void secondDFAMinimizationTest(){
+        String[] statesArray = new String[] {"A", "K", "M", "N", "E", "G"};
+        List largeStates = Arrays.asList(statesArray);
+
+        String largeStart = "A";
+
+        String[] acceptsArray = new String[] {"E", "G"};
+        List largeAccepts = Arrays.asList(acceptsArray);
+
+        List<Transition> largeTransitions = new ArrayList<Transition>();
+        largeTransitions.add(new Transition("A", "E", 0));
+        largeTransitions.add(new Transition("A", "M", 1));
+        largeTransitions.add(new Transition("K", "M", 0));
+        largeTransitions.add(new Transition("K", "N", 1));
+        largeTransitions.add(new Transition("M", "M", 0));
+        largeTransitions.add(new Transition("M", "K", 1));
+        largeTransitions.add(new Transition("N", "K", 0));
+        largeTransitions.add(new Transition("N", "M", 1));
+        largeTransitions.add(new Transition("E", "N", 0));
+        largeTransitions.add(new Transition("E", "G", 1));
+        largeTransitions.add(new Transition("G", "K", 0));
+        largeTransitions.add(new Transition("G", "G", 1));
+
+        DFA largeDFA = new DFA(largeStates, largeStart, largeAccepts, largeTransitions);
+
+        String[] minStatesArray = new String[] {"A", "KMN", "EG"};
+        List minStates = Arrays.asList(minStatesArray);
+
+        String minStart = "A";
+
+        String[] minAcceptsArray = new String[] {"EG"};
+        List minAccepts = Arrays.asList(minAcceptsArray);
+
+        List<Transition> minTransitions = new ArrayList<Transition>();
+        minTransitions.add(new Transition("A", "EG", 0));
+        minTransitions.add(new Transition("A", "KMN", 1));
+        minTransitions.add(new Transition("KMN", "KMN", 0));
+        minTransitions.add(new Transition("KMN", "KMN", 1));
+        minTransitions.add(new Transition("EG", "KMN", 0));
+        minTransitions.add(new Transition("EG", "EG", 1));
+
+        DFA minimizedDFA = new DFA(minStates, minStart, minAccepts, minTransitions);
+
+        assertTrue(minimizedDFA.equals(largeDFA.minimizeDFA(largeDFA)));
+    }
+
+    /**
+     * This test is to check that the minimization cache hits for renamed DFAs, evicts the least
+     * recently used entry, shares one minimization between threads asking for the same DFA, and
+     * gives every caller its own DFA, so changing one cannot change what later callers get
+     */
+    @Test
+    public void testMinimizationCache() throws Exception{
+        MinimizationCache cache = new MinimizationCache(2);
+        DFA lecture = LoadingTester.lectureDFA();
+        DFA minimized = cache.minimize(lecture);
+        assertTrue(minimized.isEquivalent(lecture));
+        assertEquals(4, minimized.stateCount());
+        DFA hit = cache.minimize(LoadingTester.lectureDFA());
+        assertNotSame(minimized, hit);
+        assertTrue(minimized.equals(hit));
+        assertEquals(1, cache.hits.sum());
+        assertEquals(1, cache.misses.sum());
+
+        hit.delta[0] = hit.delta[1];
+        hit.acceptBits.flip(0, hit.stateCount());
+        hit.stateNames[0] = "X";
+        hit.stateIds.clear();
+        DFA clean = cache.minimize(lecture);
+        assertTrue(minimized.equals(clean));
+        assertEquals("Q0", clean.startState);
+        assertEquals(minimized.listAllStates, clean.listAllStates);
+        assertTrue(clean.isEquivalent(lecture));
+        assertEquals(2, cache.hits.sum());
+
+        Random random = new Random(14);
+        cache.minimize(RunningTester.randomDFA(random, 10));
+        cache.minimize(RunningTester.randomDFA(random, 10));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions.sum());
+        cache.minimize(lecture);
+        assertEquals(4, cache.misses.sum());
+
+        MinimizationCache shared = new MinimizationCache(4);
+        DFA large = RunningTester.randomDFA(random, 20000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<DFA>> results = new ArrayList<Future<DFA>>();
+        for(int i = 0; i < 8; i++) results.add(pool.submit(() -> shared.minimize(large)));
+        DFA first = results.get(0).get();
+        for(Future<DFA> result: results) assertTrue(first.equals(result.get()));
+        pool.shutdown();
+        assertEquals(1, shared.misses.sum());
+        assertEquals(7, shared.hits.sum());
+
+        assertThrows(IllegalArgumentException.class, () -> new MinimizationCache(0));
+    }
+
+    /**
+     * This test is to check that a MutableDFA keeps the same partition a full minimization would
+     * find, through a long run of random accept changes and redirected transitions
+     */
+    @Test
+    public void testIncrementalMinimization(){
+        Random random = new Random(15);
+        for(int round = 0; round < 10; round++){
+            int size = 2 + random.nextInt(20);
+            DFA original = RunningTester.randomDFA(random, size);
+            MutableDFA mutable = new MutableDFA(original);
+            assertTrue(mutable.minimized().equals(original.minimizeDFA(original)));
+            for(int edit = 0; edit < 50; edit++){
+                String state = "Q" + random.nextInt(size);
+                switch(random.nextInt(3)){
+                    case 0: mutable.addAccept(state); break;
+                    case 1: mutable.removeAccept(state); break;
+                    default: mutable.redirect(state, random.nextInt(2), "Q" + random.nextInt(size));
+                }
+                DFA current = mutable.toDFA();
+                DFA expected = current.minimizeDFA(current);
+                assertTrue(mutable.blockCount() >= expected.stateCount());
+                assertTrue(mutable.minimized().equals(expected));
+            }
+        }
+
+        MutableDFA mutable = new MutableDFA(LoadingTester.lectureDFA());
+        assertTrue(mutable.equivalent("D", "E"));
+        mutable.removeAccept("E");
+        assertFalse(mutable.equivalent("D", "E"));
+        assertThrows(IllegalArgumentException.class, () -> mutable.addAccept("Z"));
+        assertThrows(IllegalArgumentException.class, () -> mutable.redirect("S", 2, "A"));
+    }
+
+    /**
+     * This test is to check that an edit to a large strongly connected DFA, where every state can
+     * reach the edited one, only scans the edges around the states it tells apart or merges, with
+     * the partition read after every edit. The states P0..P99 copy Q0..Q99, so the partition has
+     * blocks of two to split as well as single states
+     */
+    @Test
+    public void testIncrementalMinimizationWork(){
+        Random random = new Random(17);
+        int n = 20000;
+        DFA.Builder builder = new DFA.Builder();
+        for(int i = 0; i < n; i++) builder.state("Q" + i);
+        for(int i = 0; i < 100; i++) builder.state("P" + i);
+        builder.start("Q0");
+        for(int i = 0; i < n; i++){
+            int t = random.nextInt(n);
+            String one = t < 100 && random.nextBoolean() ? "P" + t : "Q" + t;
+            boolean accept = random.nextInt(3) == 0;
+            builder.transition("Q" + i, "Q" + (i + 1) % n, 0).transition("Q" + i, one, 1);
+            if(accept) builder.accept("Q" + i);
+            if(i < 100){
+                builder.transition("P" + i, "Q" + (i + 1) % n, 0).transition("P" + i, one, 1);
+                if(accept) builder.accept("P" + i);
+            }
+        }
+        MutableDFA mutable = new MutableDFA(builder.build());
+        assertEquals(n, mutable.blockCount());
+
+        long start = mutable.work;
+        for(int edit = 0; edit < 1000; edit++){
+            String state = random.nextInt(50) == 0 ? "P" + random.nextInt(100) : "Q" + random.nextInt(n);
+            long before = mutable.work;
+            switch(random.nextInt(3)){
+                case 0: mutable.addAccept(state); break;
+                case 1: mutable.removeAccept(state); break;
+                default: mutable.redirect(state, random.nextInt(2), "Q" + random.nextInt(n));
+            }
+            assertTrue(mutable.blockCount() >= n - 100);
+            assertEquals(mutable.equivalent(state, "Q0"), mutable.equivalent("Q0", state));
+            assertTrue(mutable.work - before < 1000);
+        }
+        assertTrue(mutable.work - start < 100000);
+        DFA current = mutable.toDFA();
+        assertTrue(mutable.minimized().equals(current.minimizeDFA(current)));
+    }
+
+    /**
+     * This test is to check that pruning removes the unreachable states, merges the dead states into
+     * one sink, and reports both, and that minimizeDFA no longer keeps unreachable states
+     */
+    @Test
+    public void testPruning(){
+        DFA DFA = new DFA.Builder()
+                .state("S").state("U").state("X").state("A").state("Y").state("V")
+                .start("S").accept("A").accept("U")
+                .transition("S", "X", 0).transition("S", "A", 1)
+                .transition("A", "Y", 0).transition("A", "A", 1)
+                .transition("X", "Y", 0).transition("X", "X", 1)
+                .transition("Y", "X", 0).transition("Y", "Y", 1)
+                .transition("U", "V", 0).transition("U", "S", 1)
+                .transition("V", "V", 0).transition("V", "V", 1)
+                .build();
+
+        Pruner.Result pruned = Pruner.prune(DFA);
+        assertEquals(6, pruned.originalStates);
+        assertEquals(2, pruned.unreachableRemoved);
+        assertEquals(1, pruned.deadRemoved);
+        assertEquals(3, pruned.stateCount());
+        assertArrayEquals(new String[]{"S", "XY", "A"}, pruned.stateNames);
+        assertEquals("Pruned 6 states to 3: 2 unreachable removed, 1 dead merged into one sink", pruned.toString());
+        assertTrue(pruned.toDFA().isEquivalent(DFA));
+
+        DFA minimized = DFA.minimizeDFA(DFA);
+        assertEquals(new HashSet<String>(Arrays.asList("S", "XY", "A")), minimized.listAllStates);
+        assertTrue(minimized.isEquivalent(DFA));
+
+        DFA empty = new DFA.Builder().state("S").state("T").start("S")
+                .transition("S", "T", 0).transition("S", "T", 1).transition("T", "S", 0).transition("T", "T", 1)
+                .build();
+        assertEquals(1, Pruner.prune(empty).stateCount());
+        assertEquals("ST", empty.minimizeDFA(empty).startState);
+    }
+
+    /**
+     * This test is to check the subset construction on the NFA for "the third symbol from the end
+     * is 1", whose smallest DFA has 8 states, and on random NFAs with epsilon transitions, with and
+     * without minimizing on the way
+     */
+    @Test
+    public void testSubsetConstruction(){
+        NFA thirdFromEnd = new NFA().state("A").state("B").state("C").state("D").start("A").accept("D")
+                .transition("A", "A", 0).transition("A", "A", 1).transition("A", "B", 1)
+                .transition("B", "C", 0).transition("B", "C", 1)
+                .transition("C", "D", 0).transition("C", "D", 1);
+        DFA subsets = thirdFromEnd.toDFA(SubsetConstruction.Minimization.NONE);
+        assertEquals(8, subsets.stateCount());
+        assertEquals("{A}", subsets.startState);
+        assertTrue(subsets.listAllStates.contains("{A,B,C,D}"));
+        DFA hopcroft = thirdFromEnd.toDFA(SubsetConstruction.Minimization.HOPCROFT);
+        assertEquals(8, hopcroft.stateCount());
+        assertTrue(hopcroft.equals(thirdFromEnd.toDFA(SubsetConstruction.Minimization.BRZOZOWSKI)));
+        assertTrue(subsets.accepts("0100"));
+        assertFalse(subsets.accepts("0010"));
+
+        Random random = new Random(17);
+        for(int i = 0; i < 100; i++){
+            int size = 1 + random.nextInt(6);
+            NFA nfa = new NFA();
+            for(int q = 0; q < size; q++) nfa.state("N" + q);
+            nfa.start("N0");
+            for(int q = 0; q < size; q++){
+                if(random.nextInt(3) == 0) nfa.accept("N" + q);
+                for(int e = random.nextInt(4); e > 0; e--) nfa.transition("N" + q, "N" + random.nextInt(size), random.nextInt(2));
+                if(random.nextInt(4) == 0) nfa.epsilon("N" + q, "N" + random.nextInt(size));
+            }
+
+            DFA DFA = nfa.toDFA(SubsetConstruction.Minimization.NONE);
+            for(int j = 0; j < 20; j++){
+                int[] input = new int[random.nextInt(8)];
+                for(int b = 0; b < input.length; b++) input[b] = random.nextInt(2);
+                assertEquals(nfa.accepts(input), DFA.accepts(input));
+            }
+            DFA minimal = nfa.toDFA(SubsetConstruction.Minimization.HOPCROFT);
+            assertTrue(minimal.equals(nfa.toDFA(SubsetConstruction.Minimization.BRZOZOWSKI)));
+            assertTrue(minimal.isEquivalent(DFA));
+            assertEquals(DFA.minimizeDFA(DFA).stateCount(), minimal.stateCount());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new NFA().state("A").toDFA(SubsetConstruction.Minimization.NONE));
+    }
+
+    /**
+     * This test is to check that the parallel Moore rounds give exactly the partition Hopcroft's
+     * algorithm gives, on random tables over three symbols and on a long chain that needs a round
+     * per state, and that minimizeDFA gives the same DFA in both modes
+     */
+    @Test
+    public void testParallelMinimization(){
+        Random random = new Random(20);
+        for(int i = 0; i < 200; i++){
+            int n = 1 + random.nextInt(40);
+            int k = 3;
+            int[] delta = new int[n * k];
+            for(int j = 0; j < delta.length; j++) delta[j] = random.nextInt(n);
+            int[] initialClass = new int[n];
+            for(int q = 0; q < n; q++) initialClass[q] = random.nextInt(3) == 0 ? 1 : 0;
+            assertArrayEquals(Hopcroft.partition(n, k, delta, initialClass), ParallelMoore.partition(n, k, delta, initialClass));
+        }
+
+        int n = 500;
+        int[] chain = new int[n * 2];
+        int[] initialClass = new int[n];
+        for(int q = 0; q < n; q++){
+            chain[q * 2] = Math.min(q + 1, n - 1);
+            chain[q * 2 + 1] = q;
+        }
+        initialClass[n - 1] = 1;
+        int[] blocks = ParallelMoore.partition(n, 2, chain, initialClass);
+        assertArrayEquals(Hopcroft.partition(n, 2, chain, initialClass), blocks);
+        assertEquals(n - 1, blocks[n - 1]);
+
+        for(int size: new int[]{1, 5, 50, 20000}){
+            DFA large = RunningTester.randomDFA(random, size);
+            assertTrue(large.minimizeDFA(large).equals(large.minimizeDFA(large, DFA.MinimizationMode.PARALLEL)));
+        }
+    }
+
+    /**
+     * This test is to check that minimizing reports its phases, rounds, splits and state counts to
+     * the metrics that are set and as JFR events, and that nothing is reported once they are unset
+     */
+    @Test
+    public void testInstrumentation() throws Exception{
+        DFA random = RunningTester.randomDFA(new Random(21), 200);
+        Metrics.Recorder recorder = new Metrics.Recorder();
+        Instrumentation.setMetrics(recorder);
+        DFA minimized;
+        Path file = Files.createTempFile("minimize", ".jfr");
+        try(Recording recording = new Recording()){
+            recording.enable("dfa.Minimization");
+            recording.enable("dfa.Refinement");
+            recording.enable("dfa.RefinementRound");
+            recording.start();
+            minimized = random.minimizeDFA(random);
+            random.minimizeDFA(random, DFA.MinimizationMode.PARALLEL);
+            recording.stop();
+            recording.dump(file);
+        }finally{
+            Instrumentation.setMetrics(null);
+        }
+
+        assertEquals(2, recorder.counter("dfa.minimizations"));
+        assertEquals(2, recorder.histogram("dfa.refine.nanos").getCount());
+        assertEquals(200, recorder.histogram("dfa.minimization.statesBefore").getMax());
+        assertEquals(minimized.stateCount(), recorder.histogram("dfa.minimization.statesAfter").getMax());
+        assertTrue(recorder.counter("dfa.refinement.rounds") > 0);
+        assertTrue(recorder.counter("dfa.refinement.splits") > 0);
+        assertTrue(recorder.histogram("dfa.validate.nanos").getCount() >= 2);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(2, events.stream().filter(e -> e.getEventType().getName().equals("dfa.Minimization")).count());
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("dfa.RefinementRound") && e.getString("algorithm").equals("moore")));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("dfa.Refinement") && e.getInt("blocks") == minimized.stateCount()));
+
+        random.minimizeDFA(random);
+        assertEquals(2, recorder.counter("dfa.minimizations"));
+    }
+
+}
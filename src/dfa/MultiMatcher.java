@@ -0,0 +1,160 @@
+package dfa;
+
+import java.util.*;
+
+public class MultiMatcher {
+    public final Alphabet alphabet;
+    public final int patternCount;
+    public final int startId;
+    public final int[] delta;
+    public final int[] labelOf;
+
+    private final BitSet[] labels;
+    private final int[] byteColumn;
+
+    /**
+     * Combines many DFAs into one DFA that runs them all in a single pass. Every state of the product
+     * of the patterns is labelled with the set of patterns that accept in it, the labels are interned
+     * so equal sets share one id, and the product is minimized with Hopcroft's algorithm starting from
+     * the partition by label rather than by accept and reject. Two states are merged only when every
+     * input from them leads to the same set of matching patterns, so the matcher is the smallest DFA
+     * that still says which patterns match, not just whether any does.
+     * The state reached from q on the symbol in column a is delta[q * alphabet.size + a], and the
+     * patterns that accept in q are labels(q)
+     * @param patterns the DFAs to match, which must all have the same alphabet. Pattern i is bit i of every label
+     */
+    public MultiMatcher(DFA... patterns){
+        Product.Tuples tuples = Product.explore(patterns);
+        final int k = patterns[0].alphabet.size;
+        int n = tuples.count;
+
+        Map<BitSet,Integer> labelIds = new HashMap<BitSet,Integer>();
+        List<BitSet> labels = new ArrayList<BitSet>();
+        int[] initialClass = new int[n];
+        for(int t = 0; t < n; t++){
+            BitSet label = tuples.accepting(t);
+            Integer id = labelIds.get(label);
+            if(id == null){
+                id = labels.size();
+                labelIds.put(label, id);
+                labels.add(label);
+            }
+            initialClass[t] = id;
+        }
+
+        // Blocks are numbered by their lowest tuple, so the start tuple 0 is in block 0
+        int[] blockOf = Hopcroft.partition(n, k, tuples.delta, initialClass);
+        int blocks = 0;
+        for(int b: blockOf) blocks = Math.max(blocks, b + 1);
+        this.delta = new int[blocks * k];
+        this.labelOf = new int[blocks];
+        for(int t = 0; t < n; t++){
+            int b = blockOf[t];
+            this.labelOf[b] = initialClass[t];
+            for(int a = 0; a < k; a++) this.delta[b * k + a] = blockOf[tuples.delta[t * k + a]];
+        }
+
+        this.alphabet = patterns[0].alphabet;
+        this.patternCount = patterns.length;
+        this.startId = 0;
+        this.labels = labels.toArray(new BitSet[0]);
+        this.byteColumn = new int[256];
+        for(int b = 0; b < 256; b++) this.byteColumn[b] = this.alphabet.column(b);
+    }
+
+    /**
+     * Gets the number of states of the matcher
+     * @return the number of states
+     */
+    public int stateCount(){
+        return this.labelOf.length;
+    }
+
+    /**
+     * The patterns that accept in a state
+     * @param state the state
+     * @return a new set with bit i set if pattern i accepts
+     */
+    public BitSet labels(int state){
+        return (BitSet) this.labels[this.labelOf[state]].clone();
+    }
+
+    /**
+     * Runs every pattern over a sequence of symbols in one pass
+     * @param symbols the input symbols
+     * @return a new set with bit i set if pattern i accepts the input
+     */
+    public BitSet matches(int[] symbols){
+        final int k = this.alphabet.size;
+        int state = this.startId;
+        for(int symbol: symbols){
+            int column = this.alphabet.column(symbol);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = this.delta[state * k + column];
+        }
+        return labels(state);
+    }
+
+    /**
+     * Runs every binary pattern over every bit of a byte array in one pass. Bits are read from the most
+     * significant bit of each byte to the least significant one, as DFA.accepts(byte[]) reads them
+     * @param bits the packed input bits
+     * @return a new set with bit i set if pattern i accepts the input
+     */
+    public BitSet matches(byte[] bits){
+        return labels(run(this.startId, bits, 0, (long) bits.length * 8));
+    }
+
+    /**
+     * Steps the matcher from the given state over the bits fromBit (inclusive) to toBit (exclusive)
+     * of a byte array, read in the same order as DFA.run, so a stream can be matched a chunk at a
+     * time. Only a matcher of binary patterns can read packed bits
+     * @param state the state to start from
+     * @param bits the packed input bits
+     * @param fromBit the first bit to read
+     * @param toBit the bit to stop at
+     * @return the state the matcher is in after reading the bits
+     */
+    public int run(int state, byte[] bits, long fromBit, long toBit){
+        if(!this.alphabet.isBinary()) throw new IllegalArgumentException("This method only works on DFAs over the binary alphabet");
+        if(fromBit < 0 || fromBit > toBit || toBit > (long) bits.length * 8) throw new IllegalArgumentException("The given range is outside of the given input");
+        final int[] delta = this.delta;
+        for(long bit = fromBit; bit < toBit; bit++){
+            state = delta[state * DFA.ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+        }
+        return state;
+    }
+
+    /**
+     * Runs every pattern over a byte array in one pass, reading every byte as one symbol from 0 to 255,
+     * like ClassTable.accepts. This is for patterns over bytes, e.g. Alphabet.BYTES, and not for binary
+     * patterns, which read a byte array as packed bits through matches(byte[])
+     * @param input the input bytes
+     * @return a new set with bit i set if pattern i accepts the input
+     */
+    public BitSet matchesSymbols(byte[] input){
+        return labels(runSymbols(this.startId, input, 0, input.length));
+    }
+
+    /**
+     * Steps the matcher from the given state over the bytes from (inclusive) to to (exclusive),
+     * reading every byte as one symbol from 0 to 255, so a stream of symbols can be matched a chunk at a time
+     * @param state the state to start from
+     * @param input the input bytes
+     * @param from the first byte to read
+     * @param to the byte to stop at
+     * @return the state the matcher is in after reading the bytes
+     */
+    public int runSymbols(int state, byte[] input, int from, int to){
+        final int[] delta = this.delta;
+        final int[] byteColumn = this.byteColumn;
+        final int k = this.alphabet.size;
+        for(int i = from; i < to; i++){
+            int column = byteColumn[input[i] & 0xFF];
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = delta[state * k + column];
+        }
+        return state;
+    }
+
+}
@@ -0,0 +1,699 @@
+package dfa;
+
+import java.util.*;
+
+public class MutableDFA {
+    public final Alphabet alphabet;
+    public final String[] stateNames;
+    private final Map<String, Integer> stateIds;
+    private final int k;
+    private final int startId;
+    private final int[] delta;
+    private final BitSet acceptBits;
+
+    // The transitions into each state, as edge ids q * k + a, and the position of every edge in its target's list
+    private final int[][] preds;
+    private final int[] predCount;
+    private final int[] predPos;
+
+    // The current partition. Every block is a doubly linked list of its states, and the live block ids
+    // are kept in one array so the blocks can be listed without looking at every state
+    private final int[] blockOf;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] head;
+    private final int[] size;
+    private final int[] live;
+    private final int[] livePos;
+    private int liveCount;
+    private final int[] freeBlocks;
+    private int freeCount;
+
+    // Equivalent states accept the same short words. hash[i][q] hashes the accept bits of the states
+    // reached from q by the words of length at most i, and every live block is chained into a bucket
+    // by the deepest hash of its states, so the only blocks that can accept the same language as a
+    // block are the others in its bucket with the same hash. A new block is not chained until its
+    // states are known, which bucketPrev marks with -2
+    private final int depth;
+    private final long[][] hash;
+    private final long[] blockHash;
+    private final int[] bucketHead;
+    private final int[] bucketNext;
+    private final int[] bucketPrev;
+
+    // Scratch space shared by every edit, so none allocates: the (block, symbol) splitters still to
+    // process and whether each one is queued, the states marked by a splitter, the blocks they are in
+    // and how many of each block's states are marked, and the block each split block gives its marked
+    // states to. Rehashing reuses marked and touched for the states of each depth, and checking two
+    // blocks reuses them for its stack of block pairs and splitInto for the block each class merges
+    // into, with the union-find parent of every block and the blocks it linked. The blocks still to
+    // rechain and check for equivalent blocks are pending
+    private final int[] stack;
+    private final boolean[] queued;
+    private final int[] marked;
+    private final int[] touched;
+    private final int[] count;
+    private final int[] splitInto;
+    private final boolean[] seen;
+    private final int[] parent;
+    private final int[] linked;
+    private final int[] pending;
+    private final boolean[] isPending;
+    private int pendingCount;
+
+    // The number of edges scanned, hashes computed and states moved by edits, to check how much an edit costs
+    long work;
+
+    /**
+     * Constructor for an editable DFA that keeps its minimal partition up to date. The DFA is copied
+     * and minimized once, and after that every edit only splits the blocks that the changed state
+     * tells apart and merges the blocks it made equivalent
+     * @param dfa the DFA to start from
+     */
+    public MutableDFA(DFA dfa){
+        int n = dfa.stateCount();
+        this.alphabet = dfa.alphabet;
+        this.k = dfa.alphabet.size;
+        final int k = this.k;
+        this.stateNames = dfa.stateNames;
+        this.stateIds = dfa.stateIds;
+        this.startId = dfa.startId;
+        this.delta = dfa.delta.clone();
+        this.acceptBits = (BitSet) dfa.acceptBits.clone();
+
+        this.preds = new int[n][];
+        this.predCount = new int[n];
+        this.predPos = new int[n * k];
+        int[] inDegree = new int[n];
+        for(int e = 0; e < n * k; e++) inDegree[this.delta[e]]++;
+        for(int q = 0; q < n; q++) this.preds[q] = new int[Math.max(inDegree[q], 1)];
+        for(int e = 0; e < n * k; e++) addPred(this.delta[e], e);
+
+        this.blockOf = new int[n];
+        this.next = new int[n];
+        this.prev = new int[n];
+        this.head = new int[n];
+        this.size = new int[n];
+        this.live = new int[n];
+        this.livePos = new int[n];
+        this.freeBlocks = new int[n];
+        for(int b = n - 1; b >= 0; b--) this.freeBlocks[this.freeCount++] = b;
+        this.stack = new int[n * k];
+        this.queued = new boolean[n * k];
+        this.marked = new int[n];
+        this.touched = new int[n];
+        this.count = new int[n];
+        this.splitInto = new int[n];
+        this.seen = new boolean[n];
+        this.parent = new int[n];
+        Arrays.fill(this.parent, -1);
+        this.linked = new int[n];
+        this.pending = new int[n];
+        this.isPending = new boolean[n];
+
+        // The hashes look as deep as a tree of about 16 leaves, so an edit rehashes few states
+        int depth = 1;
+        for(long leaves = k; depth < 4 && leaves * k <= 16; leaves *= k) depth++;
+        this.depth = depth;
+        this.hash = new long[depth + 1][n];
+        for(int i = 0; i <= depth; i++){
+            for(int q = 0; q < n; q++) this.hash[i][q] = hash(i, q);
+        }
+        this.blockHash = new long[n];
+        this.bucketHead = new int[Integer.highestOneBit(Math.max(n - 1, 1)) << 1];
+        Arrays.fill(this.bucketHead, -1);
+        this.bucketNext = new int[n];
+        this.bucketPrev = new int[n];
+
+        int[] initialClass = new int[n];
+        for(int q = this.acceptBits.nextSetBit(0); q >= 0; q = this.acceptBits.nextSetBit(q + 1)) initialClass[q] = 1;
+        int[] blocks = Hopcroft.partition(n, k, this.delta, initialClass);
+        int[] blockIds = new int[n];
+        Arrays.fill(blockIds, -1);
+        for(int q = 0; q < n; q++){
+            if(blockIds[blocks[q]] < 0) blockIds[blocks[q]] = newBlock();
+            join(q, blockIds[blocks[q]]);
+        }
+        for(int i = 0; i < this.liveCount; i++) chain(this.live[i]);
+    }
+
+    /**
+     * The number of states, including unreachable ones
+     * @return the number of states
+     */
+    public int stateCount(){
+        return this.blockOf.length;
+    }
+
+    /**
+     * The number of blocks in the current partition of all the states. Blocks of unreachable states
+     * are counted too, so the minimized DFA can have fewer states than this
+     * @return the number of blocks in the current partition
+     */
+    public int blockCount(){
+        return this.liveCount;
+    }
+
+    /**
+     * Tests whether two states currently accept the same language
+     * @param one the name of the first state
+     * @param two the name of the second state
+     * @return true if the states are in the same block, false otherwise
+     */
+    public boolean equivalent(String one, String two){
+        int p = id(one);
+        int q = id(two);
+        return this.blockOf[p] == this.blockOf[q];
+    }
+
+    /**
+     * Makes a state accept
+     * @param state the name of the state
+     */
+    public void addAccept(String state){
+        int q = id(state);
+        if(this.acceptBits.get(q)) return;
+        this.acceptBits.set(q);
+        update(q);
+    }
+
+    /**
+     * Makes a state reject
+     * @param state the name of the state
+     */
+    public void removeAccept(String state){
+        int q = id(state);
+        if(!this.acceptBits.get(q)) return;
+        this.acceptBits.clear(q);
+        update(q);
+    }
+
+    /**
+     * Points the transition out of a state on a symbol at a new target state
+     * @param state the name of the state the transition leaves
+     * @param symbol the symbol, which must be in the alphabet
+     * @param target the name of the new target state
+     */
+    public void redirect(String state, int symbol, String target){
+        int column = this.alphabet.column(symbol);
+        if(column < 0) throw new IllegalArgumentException("The given list of transitions contains an illegal transition");
+        int q = id(state);
+        int t = id(target);
+        int e = q * this.k + column;
+        if(this.delta[e] == t) return;
+        // A target equivalent to the old one changes no state's language, so the partition still holds
+        boolean same = this.blockOf[this.delta[e]] == this.blockOf[t];
+        removePred(this.delta[e], e);
+        this.delta[e] = t;
+        addPred(t, e);
+        if(!same) update(q);
+    }
+
+    /**
+     * Builds the current, unminimized DFA
+     * @return the DFA
+     */
+    public DFA toDFA(){
+        DFA.Builder builder = new DFA.Builder(this.alphabet);
+        for(String name: this.stateNames) builder.state(name);
+        builder.start(this.stateNames[this.startId]);
+        for(int q = 0; q < this.stateNames.length; q++){
+            if(this.acceptBits.get(q)) builder.accept(this.stateNames[q]);
+            for(int a = 0; a < this.k; a++) builder.transition(this.stateNames[q], this.stateNames[this.delta[q * this.k + a]], this.alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the minimized DFA from the current partition. It is the same DFA minimizeDFA would
+     * build from toDFA(): only the states reachable from the start state are kept, the blocks are in
+     * the order of their lowest state and each one is named by concatenating the names of the
+     * reachable states it merged
+     * @return the minimized DFA
+     */
+    public DFA minimized(){
+        final int k = this.k;
+        int n = this.stateNames.length;
+        boolean[] reachable = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        reachable[this.startId] = true;
+        queue[tail++] = this.startId;
+        for(int head = 0; head < tail; head++){
+            for(int a = 0; a < k; a++){
+                int next = this.delta[queue[head] * k + a];
+                if(!reachable[next]){
+                    reachable[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        int[] index = new int[n];
+        Arrays.fill(index, -1);
+        List<StringBuilder> compilers = new ArrayList<>();
+        List<Integer> representative = new ArrayList<>();
+        for(int q = 0; q < n; q++){
+            if(!reachable[q]) continue;
+            int b = this.blockOf[q];
+            if(index[b] < 0){
+                index[b] = compilers.size();
+                compilers.add(new StringBuilder());
+                representative.add(q);
+            }
+            compilers.get(index[b]).append(this.stateNames[q]);
+        }
+
+        String[] names = new String[compilers.size()];
+        for(int i = 0; i < names.length; i++) names[i] = compilers.get(i).toString();
+
+        DFA.Builder builder = new DFA.Builder(this.alphabet);
+        for(String name: names) builder.state(name);
+        builder.start(names[index[this.blockOf[this.startId]]]);
+        for(int i = 0; i < names.length; i++){
+            int q = representative.get(i);
+            if(this.acceptBits.get(q)) builder.accept(names[i]);
+            for(int a = 0; a < k; a++) builder.transition(names[i], names[index[this.blockOf[this.delta[q * k + a]]]], this.alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Brings the partition up to date after the accept bit or a transition of one state changed.
+     * Before the edit every block was closed under the transitions, and only the edited state has
+     * changed, so taking it out of its block into a block of its own leaves a partition that is
+     * closed under every old block. That is the state Hopcroft's algorithm is in just after it splits
+     * a block, so the refinement carries on from there with the smaller half, {edited}, as the only
+     * splitter: the predecessor lists give the states that move into a splitter on each symbol, and
+     * only the blocks holding those states are split, with their smaller halves queued in turn.
+     * <p>
+     * Two states that the edit made equivalent were only told apart before by words that lead them
+     * through the edited state and some other state, so if the edit made any blocks equivalent, it
+     * made the block of the edited state equivalent to another block. Every merge moves the states of
+     * one block into another, and any other pair of blocks the edit made equivalent has a word that
+     * leads it into a merged pair, so one of its blocks holds a predecessor of a moved state. Only the
+     * block of the edited state and the blocks of the predecessors of moved states are checked, each
+     * against the blocks with the same hash. The work is the number of edges around the states the
+     * edit tells apart or merges, whatever the size of the DFA
+     * @param edited the state whose accept bit or transition changed
+     */
+    private void update(int edited){
+        final int k = this.k;
+        if(this.size[this.blockOf[edited]] > 1){
+            leave(edited);
+            int single = newBlock();
+            join(edited, single);
+            pend(single);
+            this.work++;
+
+            int top = 0;
+            for(int a = 0; a < k; a++) top = push(top, single * k + a);
+            while(top > 0){
+                int splitter = this.stack[--top];
+                this.queued[splitter] = false;
+                top = split(splitter / k, splitter % k, top);
+            }
+        }
+        rehash(edited);
+        pend(this.blockOf[edited]);
+
+        // Every pending block is rechained before any is checked, so each bucket is up to date
+        for(int i = 0; i < this.pendingCount; i++){
+            unchain(this.pending[i]);
+            chain(this.pending[i]);
+        }
+        while(this.pendingCount > 0){
+            int b = this.pending[--this.pendingCount];
+            this.isPending[b] = false;
+            if(this.size[b] > 0) mergeEquivalent(b);
+        }
+    }
+
+    /**
+     * Splits every block by whether its states move into a splitter block on a symbol. Each state has
+     * one transition on the symbol, so every predecessor is marked at most once
+     * @param splitter the splitter block
+     * @param a the column of the symbol
+     * @param top the number of splitters on the stack
+     * @return the number of splitters on the stack after the split halves are queued
+     */
+    private int split(int splitter, int a, int top){
+        final int k = this.k;
+        int markedCount = 0;
+        int touchedCount = 0;
+        for(int q = this.head[splitter]; q >= 0; q = this.next[q]){
+            for(int j = 0; j < this.predCount[q]; j++){
+                int e = this.preds[q][j];
+                this.work++;
+                if(e % k != a) continue;
+                int p = e / k;
+                int b = this.blockOf[p];
+                if(this.count[b]++ == 0) this.touched[touchedCount++] = b;
+                this.marked[markedCount++] = p;
+            }
+        }
+
+        for(int i = 0; i < touchedCount; i++){
+            int b = this.touched[i];
+            this.splitInto[b] = this.count[b] < this.size[b] ? newBlock() : -1;
+            if(this.splitInto[b] >= 0) pend(this.splitInto[b]);
+        }
+        for(int i = 0; i < markedCount; i++){
+            int p = this.marked[i];
+            int into = this.splitInto[this.blockOf[p]];
+            if(into < 0) continue;
+            leave(p);
+            join(p, into);
+            this.work++;
+        }
+        for(int i = 0; i < touchedCount; i++){
+            int b = this.touched[i];
+            int into = this.splitInto[b];
+            this.count[b] = 0;
+            if(into < 0) continue;
+            int smaller = this.size[into] < this.size[b] ? into : b;
+            for(int c = 0; c < k; c++) top = push(top, this.queued[b * k + c] ? into * k + c : smaller * k + c);
+        }
+        return top;
+    }
+
+    /**
+     * Queues a splitter unless it is already queued
+     * @param top the number of splitters on the stack
+     * @param splitter the splitter, as block * k + symbol column
+     * @return the number of splitters on the stack
+     */
+    private int push(int top, int splitter){
+        if(this.queued[splitter]) return top;
+        this.queued[splitter] = true;
+        this.stack[top++] = splitter;
+        return top;
+    }
+
+    /**
+     * Recomputes the hashes the edit changed. A hash at depth i only reads the accept bit of its state
+     * and the hashes at depth i - 1 of its successors, so it can only change for the edited state and
+     * the predecessors of the states whose hash changed at depth i - 1. The blocks of the states whose
+     * deepest hash changed are left pending, to be rechained
+     * @param edited the state whose accept bit or transition changed
+     */
+    private void rehash(int edited){
+        final int k = this.k;
+        int[] changed = this.marked;
+        int[] next = this.touched;
+        int changedCount = 0;
+        long h = hash(0, edited);
+        if(h != this.hash[0][edited]){
+            this.hash[0][edited] = h;
+            changed[changedCount++] = edited;
+        }
+        for(int i = 1; i <= this.depth; i++){
+            int nextCount = 0;
+            next[nextCount++] = edited;
+            this.seen[edited] = true;
+            for(int j = 0; j < changedCount; j++){
+                int q = changed[j];
+                for(int m = 0; m < this.predCount[q]; m++){
+                    int p = this.preds[q][m] / k;
+                    this.work++;
+                    if(this.seen[p]) continue;
+                    this.seen[p] = true;
+                    next[nextCount++] = p;
+                }
+            }
+
+            changedCount = 0;
+            for(int j = 0; j < nextCount; j++){
+                int q = next[j];
+                this.seen[q] = false;
+                h = hash(i, q);
+                this.work++;
+                if(h == this.hash[i][q]) continue;
+                this.hash[i][q] = h;
+                next[changedCount++] = q;
+            }
+            int[] swap = changed;
+            changed = next;
+            next = swap;
+        }
+        for(int j = 0; j < changedCount; j++) pend(this.blockOf[changed[j]]);
+    }
+
+    /**
+     * Hashes the accept bits of the states reached from a state by the words of length at most i
+     * @param i the length of the longest words
+     * @param q the state
+     * @return the hash, which is the same for equivalent states
+     */
+    private long hash(int i, int q){
+        long h = CanonicalForm.mix(0, this.acceptBits.get(q) ? 1 : 0);
+        if(i == 0) return h;
+        for(int a = 0; a < this.k; a++) h = CanonicalForm.mix(h, this.hash[i - 1][this.delta[q * this.k + a]]);
+        return h;
+    }
+
+    /**
+     * Merges a block with every block that accepts the same language. Only the other blocks in its
+     * bucket with the same hash can, and each one is checked by sameLanguage
+     * @param b the block
+     */
+    private void mergeEquivalent(int b){
+        int q = this.head[b];
+        boolean merged = true;
+        while(merged){
+            merged = false;
+            int x = this.blockOf[q];
+            long h = this.blockHash[x];
+            for(int y = this.bucketHead[bucket(h)]; y >= 0; y = this.bucketNext[y]){
+                this.work++;
+                if(y != x && this.blockHash[y] == h && sameLanguage(x, y)){
+                    merged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether two blocks accept the same language, and merges them if they do. Every block is
+     * closed under the transitions, so the blocks are the states of a quotient DFA, and this is
+     * Hopcroft and Karp's check on that quotient: the two blocks are assumed equivalent, and so are
+     * the pairs of blocks their states move into on each symbol, until two blocks that are assumed
+     * equivalent differ in accepting. The assumptions are kept as a union-find forest, and if no
+     * accept bits differ they are all true, and every class of the forest is merged
+     * @param x the first block
+     * @param y the second block
+     * @return true if the blocks were merged, false otherwise
+     */
+    private boolean sameLanguage(int x, int y){
+        final int k = this.k;
+        if(this.acceptBits.get(this.head[x]) != this.acceptBits.get(this.head[y])) return false;
+        int links = 0;
+        int top = 0;
+        this.parent[x] = y;
+        this.linked[links++] = x;
+        this.marked[top] = x;
+        this.touched[top++] = y;
+        boolean same = true;
+        while(same && top > 0){
+            top--;
+            int p = this.head[this.marked[top]];
+            int q = this.head[this.touched[top]];
+            for(int a = 0; a < k; a++){
+                this.work++;
+                int one = find(this.blockOf[this.delta[p * k + a]]);
+                int two = find(this.blockOf[this.delta[q * k + a]]);
+                if(one == two) continue;
+                if(this.acceptBits.get(this.head[one]) != this.acceptBits.get(this.head[two])){
+                    same = false;
+                    break;
+                }
+                this.parent[one] = two;
+                this.linked[links++] = one;
+                this.marked[top] = one;
+                this.touched[top++] = two;
+            }
+        }
+
+        if(same){
+            // Every class moves into its largest block, which is found before any states move
+            for(int i = 0; i < links; i++){
+                int root = find(this.linked[i]);
+                this.splitInto[root] = root;
+            }
+            for(int i = 0; i < links; i++){
+                int b = this.linked[i];
+                int root = find(b);
+                if(this.size[b] > this.size[this.splitInto[root]]) this.splitInto[root] = b;
+            }
+            for(int i = 0; i < links; i++){
+                int root = find(this.linked[i]);
+                moveInto(this.linked[i], this.splitInto[root]);
+                moveInto(root, this.splitInto[root]);
+            }
+        }
+        for(int i = 0; i < links; i++) this.parent[this.linked[i]] = -1;
+        return same;
+    }
+
+    /**
+     * Finds the root of a block in the union-find forest of sameLanguage, halving the path to it
+     * @param b the block
+     * @return the root block
+     */
+    private int find(int b){
+        while(this.parent[b] >= 0){
+            if(this.parent[this.parent[b]] >= 0) this.parent[b] = this.parent[this.parent[b]];
+            b = this.parent[b];
+        }
+        return b;
+    }
+
+    /**
+     * Moves every state of a block into another block, leaving the blocks of their predecessors
+     * pending. A pending block that is emptied leaves the block it moved into pending instead
+     * @param b the block to empty
+     * @param into the block to move the states into
+     */
+    private void moveInto(int b, int into){
+        if(b == into || this.size[b] == 0) return;
+        if(this.isPending[b]) pend(into);
+        while(this.head[b] >= 0){
+            int q = this.head[b];
+            leave(q);
+            join(q, into);
+            this.work++;
+            for(int m = 0; m < this.predCount[q]; m++){
+                this.work++;
+                pend(this.blockOf[this.preds[q][m] / this.k]);
+            }
+        }
+    }
+
+    /**
+     * Leaves a block pending unless it already is
+     * @param b the block
+     */
+    private void pend(int b){
+        if(this.isPending[b]) return;
+        this.isPending[b] = true;
+        this.pending[this.pendingCount++] = b;
+    }
+
+    /**
+     * Chains a block into the bucket for the deepest hash of its states
+     * @param b the block
+     */
+    private void chain(int b){
+        long h = this.hash[this.depth][this.head[b]];
+        int slot = bucket(h);
+        this.blockHash[b] = h;
+        this.bucketPrev[b] = -1;
+        this.bucketNext[b] = this.bucketHead[slot];
+        if(this.bucketHead[slot] >= 0) this.bucketPrev[this.bucketHead[slot]] = b;
+        this.bucketHead[slot] = b;
+    }
+
+    /**
+     * Takes a block out of its bucket, if it is chained into one
+     * @param b the block
+     */
+    private void unchain(int b){
+        if(this.bucketPrev[b] == -2) return;
+        if(this.bucketPrev[b] >= 0) this.bucketNext[this.bucketPrev[b]] = this.bucketNext[b];
+        else this.bucketHead[bucket(this.blockHash[b])] = this.bucketNext[b];
+        if(this.bucketNext[b] >= 0) this.bucketPrev[this.bucketNext[b]] = this.bucketPrev[b];
+        this.bucketPrev[b] = -2;
+    }
+
+    /**
+     * The bucket for a hash
+     * @param h the hash
+     * @return the bucket
+     */
+    private int bucket(long h){
+        return (int) (h ^ (h >>> 32)) & (this.bucketHead.length - 1);
+    }
+
+    /**
+     * Finds the id of a state
+     * @param state the name of the state
+     * @return the id of the state
+     */
+    private int id(String state){
+        Integer id = state == null ? null : this.stateIds.get(state.toUpperCase());
+        if(id == null) throw new IllegalArgumentException("A given state does not exist in the given list of all states");
+        return id;
+    }
+
+    /**
+     * Adds an edge to the predecessor list of its target
+     * @param target the target state
+     * @param e the edge id
+     */
+    private void addPred(int target, int e){
+        if(this.predCount[target] == this.preds[target].length){
+            this.preds[target] = Arrays.copyOf(this.preds[target], this.preds[target].length * 2);
+        }
+        this.predPos[e] = this.predCount[target];
+        this.preds[target][this.predCount[target]++] = e;
+    }
+
+    /**
+     * Removes an edge from the predecessor list of its target by moving the last edge into its place
+     * @param target the target state
+     * @param e the edge id
+     */
+    private void removePred(int target, int e){
+        int last = this.preds[target][--this.predCount[target]];
+        this.preds[target][this.predPos[e]] = last;
+        this.predPos[last] = this.predPos[e];
+    }
+
+    /**
+     * Takes an empty block id off the free list and makes it live
+     * @return the block id
+     */
+    private int newBlock(){
+        int b = this.freeBlocks[--this.freeCount];
+        this.head[b] = -1;
+        this.size[b] = 0;
+        this.bucketPrev[b] = -2;
+        this.livePos[b] = this.liveCount;
+        this.live[this.liveCount++] = b;
+        return b;
+    }
+
+    /**
+     * Adds a state to the front of a block
+     * @param q the state
+     * @param b the block
+     */
+    private void join(int q, int b){
+        this.blockOf[q] = b;
+        this.prev[q] = -1;
+        this.next[q] = this.head[b];
+        if(this.head[b] >= 0) this.prev[this.head[b]] = q;
+        this.head[b] = q;
+        this.size[b]++;
+    }
+
+    /**
+     * Takes a state out of its block, freeing the block if it is left empty
+     * @param q the state
+     */
+    private void leave(int q){
+        int b = this.blockOf[q];
+        if(this.prev[q] >= 0) this.next[this.prev[q]] = this.next[q];
+        else this.head[b] = this.next[q];
+        if(this.next[q] >= 0) this.prev[this.next[q]] = this.prev[q];
+        if(--this.size[b] > 0) return;
+
+        unchain(b);
+        int last = this.live[--this.liveCount];
+        this.live[this.livePos[b]] = last;
+        this.livePos[last] = this.livePos[b];
+        this.freeBlocks[this.freeCount++] = b;
+    }
+
+}
@@ -0,0 +1,171 @@
+package dfa;
+
+import java.util.*;
+
+public class NFA {
+    public final Alphabet alphabet;
+
+    private final Map<String,Integer> ids = new HashMap<String,Integer>();
+    private final List<String> names = new ArrayList<String>();
+    private final BitSet starts = new BitSet();
+    private final BitSet accepts = new BitSet();
+
+    // The transitions as parallel arrays of edges. Epsilon transitions have the column -1
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] edgeColumn = new int[16];
+    private int edgeCount = 0;
+
+    /**
+     * Models an NFA over the binary alphabet
+     */
+    public NFA(){
+        this(Alphabet.BINARY);
+    }
+
+    /**
+     * Models an NFA over any alphabet. States, start states, accept states and transitions are added
+     * one at a time like in DFA.Builder, but a state can have any number of transitions on a symbol,
+     * including none, and epsilon transitions that are taken without reading a symbol
+     * @param alphabet the alphabet
+     */
+    public NFA(Alphabet alphabet){
+        this.alphabet = alphabet;
+    }
+
+    /**
+     * Adds a state. Adding a state that already exists does nothing
+     * @param state the state
+     * @return 'this' NFA
+     */
+    public NFA state(String state){
+        state = state.toUpperCase();
+        if(!this.ids.containsKey(state)){
+            this.ids.put(state, this.names.size());
+            this.names.add(state);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a start state, which must already have been added. An NFA can have more than one
+     * @param state the start state
+     * @return 'this' NFA
+     */
+    public NFA start(String state){
+        Integer id = this.ids.get(state.toUpperCase());
+        if(id == null) throw new IllegalArgumentException("Start state does not exist in the given list of all states");
+        this.starts.set(id);
+        return this;
+    }
+
+    /**
+     * Adds an accept state, which must already have been added
+     * @param state the accept state
+     * @return 'this' NFA
+     */
+    public NFA accept(String state){
+        Integer id = this.ids.get(state.toUpperCase());
+        if(id == null) throw new IllegalArgumentException("A given accept state does not exist in the given list of all states");
+        this.accepts.set(id);
+        return this;
+    }
+
+    /**
+     * Adds a transition between two states that have already been added, on a symbol of the alphabet
+     * @param start the start state
+     * @param end the end state
+     * @param value the symbol of the transition
+     * @return 'this' NFA
+     */
+    public NFA transition(String start, String end, int value){
+        int column = this.alphabet.column(value);
+        if(column < 0) throw new IllegalArgumentException("The given list of transitions contains an illegal transition");
+        addEdge(start, end, column);
+        return this;
+    }
+
+    /**
+     * Adds an epsilon transition between two states that have already been added
+     * @param start the start state
+     * @param end the end state
+     * @return 'this' NFA
+     */
+    public NFA epsilon(String start, String end){
+        addEdge(start, end, -1);
+        return this;
+    }
+
+    /**
+     * The number of states
+     * @return the number of states
+     */
+    public int stateCount(){
+        return this.names.size();
+    }
+
+    /**
+     * Runs 'this' NFA over a sequence of symbols by keeping the set of states it can be in
+     * @param symbols the input symbols
+     * @return true if an accept state can be reached, false otherwise
+     */
+    public boolean accepts(int[] symbols){
+        SubsetConstruction.Automaton automaton = automaton();
+        BitSet current = automaton.closure(this.starts);
+        for(int symbol: symbols){
+            int column = this.alphabet.column(symbol);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the NFA");
+            current = automaton.step(current, column);
+        }
+        return current.intersects(this.accepts);
+    }
+
+    /**
+     * Turns 'this' NFA into a DFA with the subset construction
+     * @param minimization whether and how to minimize the DFA while it is built
+     * @return the DFA
+     */
+    public DFA toDFA(SubsetConstruction.Minimization minimization){
+        return SubsetConstruction.determinize(this, minimization);
+    }
+
+    /**
+     * The names of the states, in id order
+     * @return the names
+     */
+    String[] stateNames(){
+        return this.names.toArray(new String[0]);
+    }
+
+    /**
+     * Turns the edge list into the int-indexed form the subset construction works on
+     * @return the automaton
+     */
+    SubsetConstruction.Automaton automaton(){
+        if(this.starts.isEmpty()) throw new IllegalArgumentException("Start state does not exist in the given list of all states");
+        return new SubsetConstruction.Automaton(this.names.size(), this.alphabet.size, this.edgeCount,
+                this.edgeFrom, this.edgeTo, this.edgeColumn, this.starts, this.accepts);
+    }
+
+    /**
+     * Adds an edge
+     * @param start the start state
+     * @param end the end state
+     * @param column the column of the symbol, or -1 for epsilon
+     */
+    private void addEdge(String start, String end, int column){
+        Integer from = this.ids.get(start.toUpperCase());
+        Integer to = this.ids.get(end.toUpperCase());
+        if(from == null || to == null) throw new IllegalArgumentException("The given list of transitions contains an illegal transition");
+        if(this.edgeCount == this.edgeFrom.length){
+            this.edgeFrom = Arrays.copyOf(this.edgeFrom, this.edgeCount * 2);
+            this.edgeTo = Arrays.copyOf(this.edgeTo, this.edgeCount * 2);
+            this.edgeColumn = Arrays.copyOf(this.edgeColumn, this.edgeCount * 2);
+        }
+        this.edgeFrom[this.edgeCount] = from;
+        this.edgeTo[this.edgeCount] = to;
+        this.edgeColumn[this.edgeCount] = column;
+        this.edgeCount++;
+    }
+
+}
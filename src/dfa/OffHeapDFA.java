@@ -0,0 +1,462 @@
+package dfa;
+
+import jdk.incubator.foreign.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class OffHeapDFA {
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public final Alphabet alphabet;
+    public final int stateCount;
+    public final MemorySegment delta;
+    public final MemorySegment acceptBits;
+
+    private final MemorySegment header;
+    private int startId;
+
+    /**
+     * A DFA whose transition and accept tables live outside the Java heap, in memory segments that
+     * belong to a ResourceScope. The tables are indexed with longs, so the transition table can
+     * hold more than 2^31 entries, and the garbage collector never scans or moves them. The memory
+     * is freed, or the file unmapped, when the scope is closed, after which every method throws
+     * IllegalStateException. The state reached from q on the symbol in column a is the int at index
+     * q * alphabet.size + a of delta, and bit q of the longs in acceptBits is set if q accepts.
+     * Both are little endian like the DFA file format.
+     * There are still limits. State ids are ints, as in the header of the DFA file, so there are fewer
+     * than 2^31 states. Each table is a single segment, so it is one native allocation or one mapping,
+     * which needs that much contiguous native memory or address space. A single segment may hold more
+     * than 2GB, unlike the ByteBuffer MappedDFA maps. create writes a name for every state, and the
+     * names section of the file format has int offsets, so it takes at most about 200 million states.
+     * The inputs of accepts and run are byte arrays, so one call reads at most 2^31 - 1 bytes. copyOf and toDFA go through a heap DFA, whose
+     * transition table is one int array, so they only work while stateCount * alphabet.size is below 2^31
+     * @param alphabet the alphabet
+     * @param stateCount the number of states
+     * @param startId the id of the start state
+     * @param delta the transition table
+     * @param acceptBits the accept bitmap
+     * @param header the header of the mapped DFA file, or null if the tables are not file backed
+     */
+    private OffHeapDFA(Alphabet alphabet, int stateCount, int startId, MemorySegment delta, MemorySegment acceptBits, MemorySegment header){
+        this.alphabet = alphabet;
+        this.stateCount = stateCount;
+        this.startId = startId;
+        this.delta = delta;
+        this.acceptBits = acceptBits;
+        this.header = header;
+    }
+
+    /**
+     * Allocates an off-heap DFA in native memory. Every transition goes to state 0, state 0 is the
+     * start state and no state accepts until they are set
+     * @param alphabet the alphabet
+     * @param stateCount the number of states, at least 1
+     * @param scope the scope that owns the memory
+     * @return the DFA
+     */
+    public static OffHeapDFA allocate(Alphabet alphabet, int stateCount, ResourceScope scope){
+        if(stateCount < 1) throw new IllegalArgumentException("A DFA must have at least one state");
+        MemorySegment delta = MemorySegment.allocateNative((long) stateCount * alphabet.size * 4, 8, scope);
+        MemorySegment acceptBits = MemorySegment.allocateNative(8L * ((stateCount + 63) / 64), 8, scope);
+        delta.fill((byte) 0);
+        acceptBits.fill((byte) 0);
+        return new OffHeapDFA(alphabet, stateCount, 0, delta, acceptBits, null);
+    }
+
+    /**
+     * Creates a DFA file and maps it, so the tables are backed by the file rather than by memory and
+     * can be larger than physical memory. The file has the DFA file format with the states named Q0,
+     * Q1 and so on, so it can be opened again with open, MappedDFA.open or DFAFile.read. Every
+     * transition goes to state 0, state 0 is the start state and no state accepts until they are set,
+     * and call force to make sure the changes are written
+     * @param file the file to create, which is replaced if it exists
+     * @param alphabet the alphabet
+     * @param stateCount the number of states, at least 1
+     * @param scope the scope that owns the mapping
+     * @return the DFA
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapDFA create(Path file, Alphabet alphabet, int stateCount, ResourceScope scope) throws IOException{
+        if(stateCount < 1) throw new IllegalArgumentException("A DFA must have at least one state");
+        final int k = alphabet.size;
+        long nameBytes = 0;
+        for(int q = 0; q < stateCount; q++) nameBytes += 1 + stringSize(q);
+        if(nameBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("The state names of the given DFA are too long to write");
+        long namesOffset = DFAFile.HEADER_BYTES;
+        long deltaOffset = DFAFile.align(namesOffset + 4L * (stateCount + 1) + nameBytes);
+        long acceptOffset = DFAFile.align(deltaOffset + 4L * stateCount * k);
+        long alphabetOffset = acceptOffset + 8L * ((stateCount + 63) / 64);
+        long fileLength = alphabetOffset + 4L * k;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            // A sparse file of zeros, so only the names need to be written before the tables are set
+            channel.write(ByteBuffer.allocate(1), fileLength - 1);
+        }
+
+        MemorySegment mapped = MemorySegment.mapFile(file, 0, fileLength, FileChannel.MapMode.READ_WRITE, scope);
+        MemoryAccess.setIntAtOffset(mapped, 0, ORDER, DFAFile.MAGIC);
+        MemoryAccess.setIntAtOffset(mapped, 4, ORDER, DFAFile.VERSION);
+        MemoryAccess.setIntAtOffset(mapped, 8, ORDER, stateCount);
+        MemoryAccess.setIntAtOffset(mapped, 12, ORDER, k);
+        MemoryAccess.setIntAtOffset(mapped, 16, ORDER, 0);
+        MemoryAccess.setLongAtOffset(mapped, 24, ORDER, namesOffset);
+        MemoryAccess.setLongAtOffset(mapped, 32, ORDER, deltaOffset);
+        MemoryAccess.setLongAtOffset(mapped, 40, ORDER, acceptOffset);
+        MemoryAccess.setLongAtOffset(mapped, 48, ORDER, fileLength);
+        MemoryAccess.setLongAtOffset(mapped, 56, ORDER, alphabetOffset);
+        for(int a = 0; a < k; a++) MemoryAccess.setIntAtOffset(mapped, alphabetOffset + 4L * a, ORDER, alphabet.symbol(a));
+
+        long nameStart = namesOffset + 4L * (stateCount + 1);
+        int nameOffset = 0;
+        for(int q = 0; q <= stateCount; q++){
+            MemoryAccess.setIntAtOffset(mapped, namesOffset + 4L * q, ORDER, nameOffset);
+            if(q == stateCount) break;
+            MemoryAccess.setByteAtOffset(mapped, nameStart + nameOffset++, (byte) 'Q');
+            for(int value = q, digit = stringSize(q) - 1; digit >= 0; digit--, value /= 10){
+                MemoryAccess.setByteAtOffset(mapped, nameStart + nameOffset + digit, (byte) ('0' + value % 10));
+            }
+            nameOffset += stringSize(q);
+        }
+        return new OffHeapDFA(alphabet, stateCount, 0, mapped.asSlice(deltaOffset, 4L * stateCount * k),
+                mapped.asSlice(acceptOffset, 8L * ((stateCount + 63) / 64)), mapped.asSlice(0, DFAFile.HEADER_BYTES));
+    }
+
+    /**
+     * Maps a file written by DFAFile.write or create, read only. Unlike MappedDFA the file may be
+     * larger than 2GB, and its state names are never read. Every transition target is checked, so
+     * opening reads the whole transition table once
+     * @param file the file to map
+     * @param scope the scope that owns the mapping
+     * @return the DFA in the file
+     * @throws IOException if the file cannot be mapped or is not a DFA file
+     */
+    public static OffHeapDFA open(Path file, ResourceScope scope) throws IOException{
+        long size;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            size = channel.size();
+        }
+        if(size < DFAFile.HEADER_BYTES) throw new IOException("The given file is not a DFA file");
+        MemorySegment mapped = MemorySegment.mapFile(file, 0, size, FileChannel.MapMode.READ_ONLY, scope);
+        if(MemoryAccess.getIntAtOffset(mapped, 0, ORDER) != DFAFile.MAGIC) throw new IOException("The given file is not a DFA file");
+        int version = MemoryAccess.getIntAtOffset(mapped, 4, ORDER);
+        if(version != 1 && version != DFAFile.VERSION) throw new IOException("The given DFA file has an unsupported version");
+        int stateCount = MemoryAccess.getIntAtOffset(mapped, 8, ORDER);
+        int k = MemoryAccess.getIntAtOffset(mapped, 12, ORDER);
+        int startId = MemoryAccess.getIntAtOffset(mapped, 16, ORDER);
+        long deltaOffset = MemoryAccess.getLongAtOffset(mapped, 32, ORDER);
+        long acceptOffset = MemoryAccess.getLongAtOffset(mapped, 40, ORDER);
+        long fileLength = MemoryAccess.getLongAtOffset(mapped, 48, ORDER);
+        long alphabetOffset = version == 1 ? fileLength : MemoryAccess.getLongAtOffset(mapped, 56, ORDER);
+        if(fileLength != size || k < 1 || (version == 1 && k != DFA.ALPHABET_SIZE) || startId < 0 || startId >= stateCount
+                || deltaOffset < DFAFile.HEADER_BYTES || deltaOffset + 4L * stateCount * k > acceptOffset || acceptOffset + 8L * ((stateCount + 63) / 64) > alphabetOffset
+                || (version > 1 && alphabetOffset + 4L * k != fileLength)){
+            throw new IOException("The given DFA file is corrupt");
+        }
+
+        Alphabet alphabet = Alphabet.BINARY;
+        if(version > 1){
+            int[] symbols = new int[k];
+            for(int a = 0; a < k; a++) symbols[a] = MemoryAccess.getIntAtOffset(mapped, alphabetOffset + 4L * a, ORDER);
+            try{
+                alphabet = Alphabet.of(symbols);
+            }catch(IllegalArgumentException e){
+                throw new IOException("The given DFA file is corrupt");
+            }
+        }
+        MemorySegment delta = mapped.asSlice(deltaOffset, 4L * stateCount * k);
+        for(long i = 0; i < (long) stateCount * k; i++){
+            int target = MemoryAccess.getIntAtIndex(delta, i, ORDER);
+            if(target < 0 || target >= stateCount) throw new IOException("The given DFA file is corrupt");
+        }
+        return new OffHeapDFA(alphabet, stateCount, startId, delta, mapped.asSlice(acceptOffset, 8L * ((stateCount + 63) / 64)), null);
+    }
+
+    /**
+     * Counts the decimal digits of a state id
+     * @param q the state id
+     * @return the number of digits
+     */
+    private static int stringSize(int q){
+        int digits = 1;
+        for(int value = q; value >= 10; value /= 10) digits++;
+        return digits;
+    }
+
+    /**
+     * Copies a DFA off the heap into native memory
+     * @param dfa the DFA to copy
+     * @param scope the scope that owns the memory
+     * @return the off-heap DFA
+     */
+    public static OffHeapDFA copyOf(DFA dfa, ResourceScope scope){
+        OffHeapDFA copy = allocate(dfa.alphabet, dfa.stateCount(), scope);
+        for(int i = 0; i < dfa.delta.length; i++) MemoryAccess.setIntAtIndex(copy.delta, i, ORDER, dfa.delta[i]);
+        long[] words = dfa.acceptBits.toLongArray();
+        for(int i = 0; i < words.length; i++) MemoryAccess.setLongAtIndex(copy.acceptBits, i, ORDER, words[i]);
+        copy.setStart(dfa.startId);
+        return copy;
+    }
+
+    /**
+     * Gets the id of the start state
+     * @return the id of the start state
+     */
+    public int startId(){
+        return this.startId;
+    }
+
+    /**
+     * Sets the start state, writing it to the header too if the DFA is backed by a file it created
+     * @param state the id of the start state
+     */
+    public void setStart(int state){
+        checkState(state);
+        this.startId = state;
+        if(this.header != null) MemoryAccess.setIntAtOffset(this.header, 16, ORDER, state);
+    }
+
+    /**
+     * Finds the state reached from a state on the symbol in a column of the alphabet
+     * @param state the id of the state
+     * @param column the column of the symbol
+     * @return the id of the next state
+     */
+    public int transition(int state, int column){
+        return MemoryAccess.getIntAtIndex(this.delta, (long) state * this.alphabet.size + column, ORDER);
+    }
+
+    /**
+     * Sets the transition out of a state on a symbol
+     * @param state the id of the state
+     * @param symbol the symbol
+     * @param target the id of the state it goes to
+     */
+    public void setTransition(int state, int symbol, int target){
+        checkState(state);
+        checkState(target);
+        int column = this.alphabet.column(symbol);
+        if(column < 0) throw new IllegalArgumentException("The given symbol is not in the alphabet of the DFA");
+        MemoryAccess.setIntAtIndex(this.delta, (long) state * this.alphabet.size + column, ORDER, target);
+    }
+
+    /**
+     * Tests whether a state is an accept state
+     * @param state the id of the state
+     * @return true if the state is an accept state, false otherwise
+     */
+    public boolean isAccept(int state){
+        return (MemoryAccess.getLongAtIndex(this.acceptBits, state >>> 6, ORDER) & (1L << state)) != 0;
+    }
+
+    /**
+     * Makes a state an accept state or not
+     * @param state the id of the state
+     * @param accept whether the state accepts
+     */
+    public void setAccept(int state, boolean accept){
+        checkState(state);
+        long word = MemoryAccess.getLongAtIndex(this.acceptBits, state >>> 6, ORDER);
+        word = accept ? word | (1L << state) : word & ~(1L << state);
+        MemoryAccess.setLongAtIndex(this.acceptBits, state >>> 6, ORDER, word);
+    }
+
+    /**
+     * Writes every change to a file backed DFA out to the file
+     */
+    public void force(){
+        if(this.header == null) return;
+        this.header.force();
+        this.delta.force();
+        this.acceptBits.force();
+    }
+
+    /**
+     * Runs the DFA over a sequence of symbols from its alphabet, reading the tables in place
+     * @param symbols the input symbols
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(int[] symbols){
+        int state = this.startId;
+        for(int symbol: symbols){
+            int column = this.alphabet.column(symbol);
+            if(column < 0) throw new IllegalArgumentException("The given input contains a symbol that is not in the alphabet of the DFA");
+            state = transition(state, column);
+        }
+        return isAccept(state);
+    }
+
+    /**
+     * Runs the DFA over the first bitLength bits of a byte array, read in the same order as DFA.accepts(byte[])
+     * @param bits the packed input bits
+     * @param bitLength the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits, long bitLength){
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        return isAccept(run(this.startId, bits, 0, bitLength));
+    }
+
+    /**
+     * Steps the binary DFA from the given state over the bits fromBit (inclusive) to toBit (exclusive)
+     * of a byte array, reading the transition table in place
+     * @param state the state to start from
+     * @param bits the packed input bits
+     * @param fromBit the first bit to read
+     * @param toBit the bit to stop at
+     * @return the state the DFA is in after reading the bits
+     */
+    public int run(int state, byte[] bits, long fromBit, long toBit){
+        if(!this.alphabet.isBinary()) throw new IllegalArgumentException("This method only works on DFAs over the binary alphabet");
+        final MemorySegment delta = this.delta;
+        for(long bit = fromBit; bit < toBit; bit++){
+            int b = (bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1;
+            state = MemoryAccess.getIntAtIndex(delta, (long) state * DFA.ALPHABET_SIZE + b, ORDER);
+        }
+        return state;
+    }
+
+    /**
+     * Minimizes the DFA without copying it onto the heap. The states that can be reached are
+     * numbered in breadth first order into a scratch table, and that table is refined with Moore
+     * rounds one symbol at a time: every state's pair (block, block of its successor) is interned in
+     * an off-heap hash table, which numbers the new blocks in the order of their lowest state, until a
+     * whole round over the alphabet splits nothing. All the scratch memory is native and freed before
+     * this returns, so the heap stays the same size however large the DFA is. Moore needs as many
+     * rounds as the longest shortest input that tells two states apart, so long chains are slow
+     * @param scope the scope that owns the memory of the minimized DFA
+     * @return the minimized DFA, whose states are numbered in breadth first order from its start state 0
+     */
+    public OffHeapDFA minimize(ResourceScope scope){
+        final int k = this.alphabet.size;
+        final int n = this.stateCount;
+        try(ResourceScope scratch = ResourceScope.newConfinedScope()){
+            MemorySegment order = MemorySegment.allocateNative(4L * n, 8, scratch);
+            MemorySegment queue = MemorySegment.allocateNative(4L * n, 8, scratch);
+            order.fill((byte) -1);
+            MemoryAccess.setIntAtIndex(order, this.startId, 0);
+            MemoryAccess.setIntAtIndex(queue, 0, this.startId);
+            int count = 1;
+            for(int head = 0; head < count; head++){
+                int q = MemoryAccess.getIntAtIndex(queue, head);
+                for(int a = 0; a < k; a++){
+                    int t = transition(q, a);
+                    if(MemoryAccess.getIntAtIndex(order, t) >= 0) continue;
+                    MemoryAccess.setIntAtIndex(order, t, count);
+                    MemoryAccess.setIntAtIndex(queue, count++, t);
+                }
+            }
+            MemorySegment reachable = MemorySegment.allocateNative(4L * count * k, 8, scratch);
+            for(int i = 0; i < count; i++){
+                int q = MemoryAccess.getIntAtIndex(queue, i);
+                for(int a = 0; a < k; a++){
+                    MemoryAccess.setIntAtIndex(reachable, (long) i * k + a, MemoryAccess.getIntAtIndex(order, transition(q, a)));
+                }
+            }
+
+            int capacity = Integer.highestOneBit(Math.max(count, 4) * 2 - 1) * 2;
+            MemorySegment keys = MemorySegment.allocateNative(8L * capacity, 8, scratch);
+            MemorySegment values = MemorySegment.allocateNative(4L * capacity, 8, scratch);
+            MemorySegment blockOf = MemorySegment.allocateNative(4L * count, 8, scratch);
+            MemorySegment next = MemorySegment.allocateNative(4L * count, 8, scratch);
+
+            keys.fill((byte) -1);
+            int blocks = 0;
+            for(int i = 0; i < count; i++){
+                int id = intern(keys, values, isAccept(MemoryAccess.getIntAtIndex(queue, i)) ? 1 : 0, blocks);
+                if(id == blocks) blocks++;
+                MemoryAccess.setIntAtIndex(blockOf, i, id);
+            }
+            int quiet = 0;
+            for(int a = 0; quiet < k; a = (a + 1) % k){
+                keys.fill((byte) -1);
+                int distinct = 0;
+                for(int i = 0; i < count; i++){
+                    int successor = MemoryAccess.getIntAtIndex(reachable, (long) i * k + a);
+                    long key = (long) MemoryAccess.getIntAtIndex(blockOf, i) << 32 | MemoryAccess.getIntAtIndex(blockOf, successor);
+                    int id = intern(keys, values, key, distinct);
+                    if(id == distinct) distinct++;
+                    MemoryAccess.setIntAtIndex(next, i, id);
+                }
+                if(distinct == blocks){
+                    quiet++;
+                    continue;
+                }
+                quiet = 0;
+                blocks = distinct;
+                MemorySegment swap = blockOf;
+                blockOf = next;
+                next = swap;
+            }
+
+            // Blocks are numbered by their lowest state, so the states of block b come no earlier than state b
+            OffHeapDFA minimized = allocate(this.alphabet, blocks, scope);
+            int filled = 0;
+            for(int i = 0; i < count && filled < blocks; i++){
+                int b = MemoryAccess.getIntAtIndex(blockOf, i);
+                if(b != filled) continue;
+                if(isAccept(MemoryAccess.getIntAtIndex(queue, i))) minimized.setAccept(b, true);
+                for(int a = 0; a < k; a++){
+                    int target = MemoryAccess.getIntAtIndex(blockOf, MemoryAccess.getIntAtIndex(reachable, (long) i * k + a));
+                    MemoryAccess.setIntAtIndex(minimized.delta, (long) b * k + a, ORDER, target);
+                }
+                filled++;
+            }
+            return minimized;
+        }
+    }
+
+    /**
+     * Copies the DFA onto the heap, naming the states Q0, Q1...
+     * @return the DFA
+     */
+    public DFA toDFA(){
+        final int k = this.alphabet.size;
+        DFA.Builder builder = new DFA.Builder(this.alphabet);
+        for(int q = 0; q < this.stateCount; q++) builder.state("Q" + q);
+        builder.start("Q" + this.startId);
+        for(int q = 0; q < this.stateCount; q++){
+            if(isAccept(q)) builder.accept("Q" + q);
+            for(int a = 0; a < k; a++) builder.transition("Q" + q, "Q" + transition(q, a), this.alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Checks that a state id is in range
+     * @param state the id of the state
+     */
+    private void checkState(int state){
+        if(state < 0 || state >= this.stateCount) throw new IllegalArgumentException("The given state does not exist in the DFA");
+    }
+
+    /**
+     * Looks a key up in an off-heap open addressing table whose empty slots hold -1, adding it with
+     * the given value if it is not there
+     * @param keys the keys of the table, whose length is a power of two
+     * @param values the values of the table
+     * @param key the key, which must not be negative
+     * @param value the value to give the key if it is new
+     * @return the value of the key
+     */
+    private static int intern(MemorySegment keys, MemorySegment values, long key, int value){
+        long mask = keys.byteSize() / 8 - 1;
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        for(long i = hash & mask; ; i = (i + 1) & mask){
+            long slot = MemoryAccess.getLongAtIndex(keys, i);
+            if(slot == key) return MemoryAccess.getIntAtIndex(values, i);
+            if(slot == -1L){
+                MemoryAccess.setLongAtIndex(keys, i, key);
+                MemoryAccess.setIntAtIndex(values, i, value);
+                return value;
+            }
+        }
+    }
+
+}
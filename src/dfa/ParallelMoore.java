@@ -0,0 +1,95 @@
+package dfa;
+
+import java.util.*;
+
+public class ParallelMoore {
+
+    /**
+     * Moore's partition refinement with every step spread over all cores. Each step refines the
+     * partition by one symbol a: every state gets the signature (block of q, block of delta(q, a))
+     * packed into a long, in parallel, the signatures are sorted with Arrays.parallelSort, and each
+     * state looks its signature up in the sorted distinct signatures, in parallel, to get its new
+     * block. The steps go round the symbols until a whole round splits no block. Refining one symbol
+     * at a time keeps the signatures exact in 64 bits for any alphabet, and it only ever splits
+     * states that are not equivalent, so it ends at the same coarsest partition Hopcroft's algorithm
+     * finds. Every step is O(n log n) work, but Moore needs as many rounds as the longest shortest
+     * input that tells two states apart, so this is fastest on large DFAs whose states are told
+     * apart by short inputs, like most random and generated DFAs, and slow on long chains
+     * @param stateCount the number of states
+     * @param alphabetSize the number of symbols
+     * @param delta the flat transition table
+     * @param initialClass the class of every state before refinement, e.g. 1 for accept states and 0 otherwise
+     * @return the block of every state, numbered 0, 1, 2... in the order of their lowest state id like Hopcroft.partition
+     */
+    public static int[] partition(int stateCount, int alphabetSize, int[] delta, int[] initialClass){
+        final int n = stateCount;
+        final int k = alphabetSize;
+        int[] blockOf = renumber(initialClass);
+        int blocks = count(blockOf);
+        if(n == 0) return blockOf;
+
+        long[] signatures = new long[n];
+        long[] sorted = new long[n];
+        int quiet = 0;
+        int rounds = 0;
+        int splits = 0;
+        for(int a = 0; quiet < k; a = (a + 1) % k){
+            rounds++;
+            final int symbol = a;
+            final int[] current = blockOf;
+            Arrays.parallelSetAll(signatures, q -> (long) current[q] << 32 | current[delta[q * k + symbol]]);
+            System.arraycopy(signatures, 0, sorted, 0, n);
+            Arrays.parallelSort(sorted);
+            int distinct = 1;
+            for(int i = 1; i < n; i++){
+                if(sorted[i] != sorted[distinct - 1]) sorted[distinct++] = sorted[i];
+            }
+            Instrumentation.round("moore", rounds, distinct, distinct - blocks);
+            if(distinct == blocks){
+                quiet++;
+                continue;
+            }
+            quiet = 0;
+            splits += distinct - blocks;
+            blocks = distinct;
+            final long[] keys = sorted;
+            final int keyCount = distinct;
+            int[] next = new int[n];
+            Arrays.parallelSetAll(next, q -> Arrays.binarySearch(keys, 0, keyCount, signatures[q]));
+            blockOf = next;
+        }
+        Instrumentation.refinement("moore", n, rounds, splits, blocks);
+        return renumber(blockOf);
+    }
+
+    /**
+     * Renumbers blocks 0, 1, 2... in the order of their lowest state id
+     * @param blockOf the block of every state, numbered in any way
+     * @return the renumbered blocks
+     */
+    private static int[] renumber(int[] blockOf){
+        int max = 0;
+        for(int b: blockOf) max = Math.max(max, b);
+        int[] ids = new int[max + 1];
+        Arrays.fill(ids, -1);
+        int count = 0;
+        int[] renumbered = new int[blockOf.length];
+        for(int q = 0; q < blockOf.length; q++){
+            if(ids[blockOf[q]] < 0) ids[blockOf[q]] = count++;
+            renumbered[q] = ids[blockOf[q]];
+        }
+        return renumbered;
+    }
+
+    /**
+     * The number of blocks in a partition numbered 0, 1, 2...
+     * @param blockOf the block of every state
+     * @return the number of blocks
+     */
+    private static int count(int[] blockOf){
+        int count = 0;
+        for(int b: blockOf) count = Math.max(count, b + 1);
+        return count;
+    }
+
+}
@@ -0,0 +1,289 @@
+package dfa;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParallelRunner {
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+    public static final int DEFAULT_LOOK_BEHIND_BYTES = 64;
+    public static final int DEFAULT_SPECULATION_LIMIT = 64;
+
+    // Blocks of bytes between two merges of start states that have converged
+    private static final int CONVERGENCE_BLOCK_BYTES = 256;
+
+    // Bytes from the start of the input that are run to measure how often each state is entered
+    private static final int SAMPLE_BYTES = 1 << 14;
+
+    public final DFA dfa;
+    public final StrideTable table;
+    public final ForkJoinPool pool;
+    public final int chunkBytes;
+    public final int lookBehindBytes;
+    public final int speculationLimit;
+    public final LongAdder mispredictions = new LongAdder();
+
+    /**
+     * Runs a binary DFA over very large inputs on a ForkJoinPool with the default chunk size,
+     * look-behind and speculation limit
+     * @param dfa the DFA to run, ideally minimized
+     * @param pool the pool to run the chunks on
+     */
+    public ParallelRunner(DFA dfa, ForkJoinPool pool){
+        this(dfa, pool, DEFAULT_CHUNK_BYTES, DEFAULT_LOOK_BEHIND_BYTES, DEFAULT_SPECULATION_LIMIT);
+    }
+
+    /**
+     * Runs a binary DFA over very large inputs on a ForkJoinPool. The input is split into chunks
+     * of chunkBytes bytes, and every chunk is run on its own from a set of possible start states,
+     * which gives a state to state map for the chunk. The maps are then composed pairwise up the
+     * fork/join tree, so the final state comes out of the same reduction that ran the chunks.
+     * If the DFA has at most speculationLimit states, every chunk is run from every state and the
+     * result is always exact. Otherwise the possible start states of a chunk are found by running
+     * the lookBehindBytes bytes before it from every state, and if more than speculationLimit of
+     * them are left, the ones kept are those the DFA was in most often at a byte boundary while
+     * reading a sample from the start of the input. A chunk that was entered in a state it did not
+     * speculate on is rerun from the real state, and counted in mispredictions
+     * @param dfa the DFA to run, ideally minimized
+     * @param pool the pool to run the chunks on
+     * @param chunkBytes the number of bytes in a chunk
+     * @param lookBehindBytes the number of bytes before a chunk used to guess its start states
+     * @param speculationLimit the most start states a chunk is run from
+     */
+    public ParallelRunner(DFA dfa, ForkJoinPool pool, int chunkBytes, int lookBehindBytes, int speculationLimit){
+        if(chunkBytes <= 0 || lookBehindBytes < 0 || speculationLimit <= 0) throw new IllegalArgumentException("The chunk size and speculation limit must be positive, and the look-behind must not be negative");
+        this.dfa = dfa;
+        this.table = new StrideTable(dfa);
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.lookBehindBytes = lookBehindBytes;
+        this.speculationLimit = speculationLimit;
+    }
+
+    /**
+     * Runs the DFA in parallel over every bit of a byte array
+     * @param bits the packed input bits, most significant bit first
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits){
+        return accepts(bits, (long) bits.length * 8);
+    }
+
+    /**
+     * Runs the DFA in parallel over the first bitLength bits of a byte array
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits, long bitLength){
+        return this.dfa.acceptBits.get(run(bits, bitLength));
+    }
+
+    /**
+     * Runs the DFA in parallel from its start state over the first bitLength bits of a byte array.
+     * The result is always the same state a sequential run ends in
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return the state the DFA is in after reading the bits
+     */
+    public int run(byte[] bits, long bitLength){
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        long chunkBits = (long) this.chunkBytes * 8;
+        int chunks = (int) Math.max(1, (bitLength + chunkBits - 1) / chunkBits);
+        ChunkMap[] maps = new ChunkMap[chunks];
+        int[] frequency = chunks > 1 && this.dfa.stateCount() > this.speculationLimit ? frequency(bits, bitLength) : null;
+        ChunkMap total = this.pool.invoke(new ChunkTask(bits, bitLength, frequency, maps, 0, chunks));
+        if(total.to[0] >= 0) return total.to[0];
+
+        // Some chunk was entered in a state it did not speculate on, so walk the chunks in order
+        int state = this.dfa.startId;
+        for(int i = 0; i < chunks; i++){
+            int index = Arrays.binarySearch(maps[i].from, state);
+            if(index >= 0 && maps[i].to[index] >= 0){
+                state = maps[i].to[index];
+            }else{
+                this.mispredictions.increment();
+                state = this.table.run(state, bits, i * chunkBits, Math.min((i + 1) * chunkBits, bitLength));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Counts how often the DFA is in each state at a byte boundary while it reads a sample from the
+     * start of the input, which estimates how likely each state is at the start of a chunk
+     * @param bits the packed input bits
+     * @param bitLength the number of bits in the input
+     * @return the number of times each state was seen
+     */
+    private int[] frequency(byte[] bits, long bitLength){
+        int[] frequency = new int[this.dfa.stateCount()];
+        int end = (int) Math.min(SAMPLE_BYTES, bitLength >>> 3);
+        int state = this.dfa.startId;
+        for(int i = 0; i < end; i++){
+            state = this.table.stride8[(state << 8) | (bits[i] & 0xff)];
+            frequency[state]++;
+        }
+        return frequency;
+    }
+
+    /**
+     * The possible start states of a chunk. The first chunk always starts in the start state of the DFA.
+     * @param bits the packed input bits
+     * @param chunk the index of the chunk
+     * @param frequency how often each state was seen in the sample, or null if every state is run
+     * @return the sorted start states to run the chunk from
+     */
+    private int[] startStates(byte[] bits, int chunk, int[] frequency){
+        int n = this.dfa.stateCount();
+        if(chunk == 0) return new int[]{this.dfa.startId};
+        if(n <= this.speculationLimit){
+            int[] all = new int[n];
+            for(int q = 0; q < n; q++) all[q] = q;
+            return all;
+        }
+
+        // The state at the start of the chunk is the image of some state under the look-behind bytes
+        long chunkStart = (long) chunk * this.chunkBytes;
+        int from = (int) Math.max(0, chunkStart - this.lookBehindBytes);
+        BitSet image = new BitSet(n);
+        image.set(0, n);
+        for(int i = from; i < chunkStart; i++){
+            BitSet next = new BitSet(n);
+            int b = bits[i] & 0xff;
+            for(int q = image.nextSetBit(0); q >= 0; q = image.nextSetBit(q + 1)) next.set(this.table.stride8[(q << 8) | b]);
+            image = next;
+        }
+        if(image.cardinality() <= this.speculationLimit) return image.stream().toArray();
+
+        // Keep the states seen most often, breaking ties by the lowest id
+        long[] ranked = new long[image.cardinality()];
+        int count = 0;
+        for(int q = image.nextSetBit(0); q >= 0; q = image.nextSetBit(q + 1)) ranked[count++] = (long) (Integer.MAX_VALUE - frequency[q]) << 32 | q;
+        Arrays.sort(ranked);
+        int[] states = new int[this.speculationLimit];
+        for(int i = 0; i < states.length; i++) states[i] = (int) ranked[i];
+        Arrays.sort(states);
+        return states;
+    }
+
+    /**
+     * Runs one chunk from each of the given start states. Start states that reach the same state
+     * are merged between blocks of bytes, so a chunk that synchronizes early costs about as much
+     * as a single run
+     * @param starts the sorted start states
+     * @param bits the packed input bits
+     * @param fromBit the first bit of the chunk
+     * @param toBit the bit the chunk stops at
+     * @return the map from each start state to the state the chunk ends in
+     */
+    private ChunkMap runChunk(int[] starts, byte[] bits, long fromBit, long toBit){
+        int[] active = starts.clone();
+        int activeCount = active.length;
+        int[] owner = new int[starts.length];
+        for(int i = 0; i < owner.length; i++) owner[i] = i;
+
+        long blockBits = (long) CONVERGENCE_BLOCK_BYTES * 8;
+        for(long bit = fromBit; bit < toBit; bit += blockBits){
+            long blockEnd = Math.min(bit + blockBits, toBit);
+            for(int j = 0; j < activeCount; j++) active[j] = this.table.run(active[j], bits, bit, blockEnd);
+            if(activeCount > 1) activeCount = merge(active, activeCount, owner);
+        }
+
+        int[] to = new int[starts.length];
+        for(int i = 0; i < starts.length; i++) to[i] = active[owner[i]];
+        return new ChunkMap(starts, to);
+    }
+
+    /**
+     * Merges the active states that have converged, and points every owner at the merged slot
+     * @param active the current state of each slot
+     * @param activeCount the number of slots in use
+     * @param owner the slot each start state is running in
+     * @return the number of slots still in use
+     */
+    private static int merge(int[] active, int activeCount, int[] owner){
+        long[] keyed = new long[activeCount];
+        for(int j = 0; j < activeCount; j++) keyed[j] = ((long) active[j] << 32) | j;
+        Arrays.sort(keyed);
+        int[] slot = new int[activeCount];
+        int count = 0;
+        for(int j = 0; j < activeCount; j++){
+            int state = (int) (keyed[j] >>> 32);
+            if(j == 0 || state != active[count - 1]) active[count++] = state;
+            slot[(int) keyed[j]] = count - 1;
+        }
+        for(int i = 0; i < owner.length; i++) owner[i] = slot[owner[i]];
+        return count;
+    }
+
+    /**
+     * Composes two chunk maps, first then second. States the second map did not speculate on map to -1
+     * @param first the map of the earlier chunks
+     * @param second the map of the later chunks
+     * @return the map of both, over the start states of the first
+     */
+    private static ChunkMap compose(ChunkMap first, ChunkMap second){
+        int[] to = new int[first.from.length];
+        for(int i = 0; i < to.length; i++){
+            int index = first.to[i] < 0 ? -1 : Arrays.binarySearch(second.from, first.to[i]);
+            to[i] = index >= 0 ? second.to[index] : -1;
+        }
+        return new ChunkMap(first.from, to);
+    }
+
+    /**
+     * A partial state to state map over a run of chunks. from is sorted, and to[i] is the state
+     * reached from from[i], or -1 if it is not known
+     */
+    private static final class ChunkMap {
+        final int[] from;
+        final int[] to;
+
+        ChunkMap(int[] from, int[] to){
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Runs the chunks lo (inclusive) to hi (exclusive), splitting in half until one chunk is
+     * left, and composes the halves on the way back up
+     */
+    private final class ChunkTask extends RecursiveTask<ChunkMap> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bits;
+        private final long bitLength;
+        private final int[] frequency;
+        private final ChunkMap[] maps;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(byte[] bits, long bitLength, int[] frequency, ChunkMap[] maps, int lo, int hi){
+            this.bits = bits;
+            this.bitLength = bitLength;
+            this.frequency = frequency;
+            this.maps = maps;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected ChunkMap compute(){
+            if(hi - lo == 1){
+                long chunkBits = (long) chunkBytes * 8;
+                ChunkMap map = runChunk(startStates(bits, lo, frequency), bits, lo * chunkBits, Math.min((lo + 1) * chunkBits, bitLength));
+                maps[lo] = map;
+                return map;
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask left = new ChunkTask(bits, bitLength, frequency, maps, lo, mid);
+            left.fork();
+            ChunkMap right = new ChunkTask(bits, bitLength, frequency, maps, mid, hi).compute();
+            return compose(left.join(), right);
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+package dfa;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+public class Product {
+
+    /**
+     * The boolean operations two DFAs can be combined with
+     */
+    public enum Operation {
+        INTERSECTION, UNION, DIFFERENCE, SYMMETRIC_DIFFERENCE;
+
+        /**
+         * Whether a pair of states accepts
+         * @param one whether the state of the first DFA accepts
+         * @param two whether the state of the second DFA accepts
+         * @return whether the pair accepts
+         */
+        public boolean accepts(boolean one, boolean two){
+            switch(this){
+                case INTERSECTION: return one && two;
+                case UNION: return one || two;
+                case DIFFERENCE: return one && !two;
+                default: return one != two;
+            }
+        }
+    }
+
+    /**
+     * The DFA accepting the inputs both DFAs accept
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return the minimized intersection
+     */
+    public static DFA intersect(DFA one, DFA two){
+        return combine(one, two, Operation.INTERSECTION);
+    }
+
+    /**
+     * The DFA accepting the inputs either DFA accepts
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return the minimized union
+     */
+    public static DFA union(DFA one, DFA two){
+        return combine(one, two, Operation.UNION);
+    }
+
+    /**
+     * The DFA accepting the inputs the first DFA accepts and the second does not
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return the minimized difference
+     */
+    public static DFA difference(DFA one, DFA two){
+        return combine(one, two, Operation.DIFFERENCE);
+    }
+
+    /**
+     * The DFA accepting the inputs exactly one of the DFAs accepts
+     * @param one the first DFA
+     * @param two the second DFA
+     * @return the minimized symmetric difference
+     */
+    public static DFA symmetricDifference(DFA one, DFA two){
+        return combine(one, two, Operation.SYMMETRIC_DIFFERENCE);
+    }
+
+    /**
+     * Combines two DFAs with a boolean operation
+     * @param one the first DFA
+     * @param two the second DFA
+     * @param operation the operation
+     * @return the minimized product DFA, with states named Q0, Q1... in breadth first order
+     */
+    public static DFA combine(DFA one, DFA two, Operation operation){
+        return combine(new DFA[]{one, two}, accepting -> operation.accepts(accepting.get(0), accepting.get(1)));
+    }
+
+    /**
+     * The DFA accepting the inputs every DFA accepts
+     * @param dfas the DFAs
+     * @return the minimized intersection
+     */
+    public static DFA intersectAll(DFA... dfas){
+        return combine(dfas, accepting -> accepting.cardinality() == dfas.length);
+    }
+
+    /**
+     * The DFA accepting the inputs at least one DFA accepts
+     * @param dfas the DFAs
+     * @return the minimized union
+     */
+    public static DFA unionAll(DFA... dfas){
+        return combine(dfas, accepting -> !accepting.isEmpty());
+    }
+
+    /**
+     * Combines any number of DFAs in one product, without building the products of pairs on the way
+     * @param dfas the DFAs, which must all have the same alphabet
+     * @param accept decides whether a tuple of states accepts, given the set of DFAs whose state accepts
+     * @return the minimized product DFA, with states named Q0, Q1... in breadth first order
+     */
+    public static DFA combine(DFA[] dfas, Predicate<BitSet> accept){
+        Tuples tuples = explore(dfas);
+        BitSet accepts = new BitSet(tuples.count);
+        for(int t = 0; t < tuples.count; t++){
+            if(accept.test(tuples.accepting(t))) accepts.set(t);
+        }
+        return CanonicalForm.minimal(dfas[0].alphabet, tuples.count, tuples.delta, accepts, 0);
+    }
+
+    /**
+     * Runs every DFA side by side over every input at once, and explores the tuples of states that
+     * can be reached from the tuple of start states breadth first. A tuple is interned one state at a
+     * time: the first two states are packed into a long and looked up in a primitive hash map, the
+     * id that gives is packed with the third state and looked up in the next map, and so on, so any
+     * number of DFAs can be combined with long keys and nothing is boxed
+     * @param dfas the DFAs, which must all have the same alphabet
+     * @return the reachable tuples, numbered in the order they were found
+     */
+    static Tuples explore(DFA[] dfas){
+        if(dfas.length == 0) throw new IllegalArgumentException("At least one DFA must be given");
+        final Alphabet alphabet = dfas[0].alphabet;
+        for(DFA dfa: dfas){
+            if(!dfa.alphabet.equals(alphabet)) throw new IllegalArgumentException("The given DFAs do not have the same alphabet");
+        }
+        final int k = alphabet.size;
+        final int n = dfas.length;
+
+        LongIntHashMap[] levels = new LongIntHashMap[Math.max(n - 1, 1)];
+        for(int i = 0; i < levels.length; i++) levels[i] = new LongIntHashMap(1024);
+        int[] states = new int[16 * n];
+        int[] delta = new int[16 * k];
+        int[] tuple = new int[n];
+
+        for(int i = 0; i < n; i++) tuple[i] = dfas[i].startId;
+        intern(levels, tuple);
+        System.arraycopy(tuple, 0, states, 0, n);
+        int count = 1;
+        for(int head = 0; head < count; head++){
+            if((head + 1) * k > delta.length) delta = Arrays.copyOf(delta, delta.length * 2);
+            for(int a = 0; a < k; a++){
+                for(int i = 0; i < n; i++) tuple[i] = dfas[i].delta[states[head * n + i] * k + a];
+                int id = intern(levels, tuple);
+                if(id == count){
+                    if((count + 1) * n > states.length) states = Arrays.copyOf(states, states.length * 2);
+                    System.arraycopy(tuple, 0, states, count * n, n);
+                    count++;
+                }
+                delta[head * k + a] = id;
+            }
+        }
+        return new Tuples(dfas, count, Arrays.copyOf(delta, count * k), Arrays.copyOf(states, count * n));
+    }
+
+    /**
+     * Interns a tuple of states through one map per DFA after the first
+     * @param levels the maps
+     * @param tuple the states
+     * @return the id of the tuple, which is the number of tuples seen before if it is new
+     */
+    private static int intern(LongIntHashMap[] levels, int[] tuple){
+        if(tuple.length == 1) return levels[0].intern(tuple[0]);
+        long prefix = tuple[0];
+        for(int i = 1; i < tuple.length; i++) prefix = levels[i - 1].intern(prefix << 32 | tuple[i]);
+        return (int) prefix;
+    }
+
+    /**
+     * The reachable tuples of a product, as a flat transition table over tuple ids and the states of every tuple
+     */
+    static final class Tuples {
+        final DFA[] dfas;
+        final int count;
+        final int[] delta;
+        final int[] states;
+
+        Tuples(DFA[] dfas, int count, int[] delta, int[] states){
+            this.dfas = dfas;
+            this.count = count;
+            this.delta = delta;
+            this.states = states;
+        }
+
+        /**
+         * The DFAs whose state in a tuple accepts
+         * @param tuple the id of the tuple
+         * @return a set with bit i set if the state of DFA i accepts
+         */
+        BitSet accepting(int tuple){
+            int n = this.dfas.length;
+            BitSet accepting = new BitSet(n);
+            for(int i = 0; i < n; i++){
+                if(this.dfas[i].acceptBits.get(this.states[tuple * n + i])) accepting.set(i);
+            }
+            return accepting;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package dfa;
+
+import java.util.*;
+
+public class Pruner {
+
+    /**
+     * The DFA left after pruning, as compact tables, and how many states each stage removed
+     */
+    public static final class Result {
+        public final Alphabet alphabet;
+        public final String[] stateNames;
+        public final int startId;
+        public final int[] delta;
+        public final BitSet acceptBits;
+        public final int originalStates;
+        public final int unreachableRemoved;
+        public final int deadRemoved;
+
+        private Result(Alphabet alphabet, String[] stateNames, int startId, int[] delta, BitSet acceptBits,
+                       int originalStates, int unreachableRemoved, int deadRemoved){
+            this.alphabet = alphabet;
+            this.stateNames = stateNames;
+            this.startId = startId;
+            this.delta = delta;
+            this.acceptBits = acceptBits;
+            this.originalStates = originalStates;
+            this.unreachableRemoved = unreachableRemoved;
+            this.deadRemoved = deadRemoved;
+        }
+
+        /**
+         * The number of states left after pruning
+         * @return the number of states
+         */
+        public int stateCount(){
+            return this.stateNames.length;
+        }
+
+        /**
+         * Builds the pruned DFA
+         * @return the DFA
+         */
+        public DFA toDFA(){
+            final int k = this.alphabet.size;
+            DFA.Builder builder = new DFA.Builder(this.alphabet);
+            for(String name: this.stateNames) builder.state(name);
+            builder.start(this.stateNames[this.startId]);
+            for(int q = 0; q < this.stateNames.length; q++){
+                if(this.acceptBits.get(q)) builder.accept(this.stateNames[q]);
+                for(int a = 0; a < k; a++) builder.transition(this.stateNames[q], this.stateNames[this.delta[q * k + a]], this.alphabet.symbol(a));
+            }
+            return builder.build();
+        }
+
+        @Override
+        public String toString(){
+            return "Pruned " + this.originalStates + " states to " + stateCount() + ": "
+                    + this.unreachableRemoved + " unreachable removed, " + this.deadRemoved + " dead merged into one sink";
+        }
+    }
+
+    /**
+     * Prunes a DFA in two linear passes before it is minimized. The first is a breadth first search
+     * from the start state, and every state it does not reach is removed. The second searches
+     * backwards from the reachable accept states, and every reachable state it does not find is dead,
+     * because no input takes it to an accept state. The dead states all accept the empty language, so
+     * they are merged into one sink named by concatenating their names, the same name minimization
+     * would give them. The states that are left keep the order of their ids, so the sink takes the
+     * place of the dead state with the lowest id
+     * @param dfa the DFA to prune
+     * @return the pruned tables and how many states each pass removed
+     */
+    public static Result prune(DFA dfa){
+        final int k = dfa.alphabet.size;
+        int n = dfa.stateCount();
+        int[] delta = dfa.delta;
+
+        boolean[] reachable = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        reachable[dfa.startId] = true;
+        queue[tail++] = dfa.startId;
+        for(int head = 0; head < tail; head++){
+            int q = queue[head];
+            for(int a = 0; a < k; a++){
+                int next = delta[q * k + a];
+                if(!reachable[next]){
+                    reachable[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        int reachableCount = tail;
+
+        // Inverse transitions between reachable states, grouped by target
+        int[] invStart = new int[n + 1];
+        for(int q = 0; q < n; q++){
+            if(!reachable[q]) continue;
+            for(int a = 0; a < k; a++) invStart[delta[q * k + a] + 1]++;
+        }
+        for(int q = 0; q < n; q++) invStart[q + 1] += invStart[q];
+        int[] invList = new int[invStart[n]];
+        int[] fill = new int[n];
+        for(int q = 0; q < n; q++){
+            if(!reachable[q]) continue;
+            for(int a = 0; a < k; a++){
+                int target = delta[q * k + a];
+                invList[invStart[target] + fill[target]++] = q;
+            }
+        }
+        fill = null;
+
+        boolean[] live = new boolean[n];
+        tail = 0;
+        for(int q = dfa.acceptBits.nextSetBit(0); q >= 0; q = dfa.acceptBits.nextSetBit(q + 1)){
+            if(reachable[q]){
+                live[q] = true;
+                queue[tail++] = q;
+            }
+        }
+        for(int head = 0; head < tail; head++){
+            int q = queue[head];
+            for(int i = invStart[q]; i < invStart[q + 1]; i++){
+                if(!live[invList[i]]){
+                    live[invList[i]] = true;
+                    queue[tail++] = invList[i];
+                }
+            }
+        }
+        int deadCount = reachableCount - tail;
+
+        int[] newId = new int[n];
+        Arrays.fill(newId, -1);
+        int count = 0;
+        int sink = -1;
+        StringBuilder sinkName = new StringBuilder();
+        List<String> names = new ArrayList<String>();
+        for(int q = 0; q < n; q++){
+            if(!reachable[q]) continue;
+            if(live[q]){
+                newId[q] = count++;
+                names.add(dfa.stateNames[q]);
+            }else{
+                if(sink < 0){
+                    sink = count++;
+                    names.add(null);
+                }
+                newId[q] = sink;
+                sinkName.append(dfa.stateNames[q]);
+            }
+        }
+        if(sink >= 0) names.set(sink, sinkName.toString());
+
+        int[] pruned = new int[count * k];
+        BitSet accepts = new BitSet(count);
+        // A dead state only goes to dead states, so every dead state writes the same self loops into the sink's row
+        for(int q = 0; q < n; q++){
+            if(newId[q] < 0) continue;
+            for(int a = 0; a < k; a++) pruned[newId[q] * k + a] = newId[delta[q * k + a]];
+            if(dfa.acceptBits.get(q)) accepts.set(newId[q]);
+        }
+
+        return new Result(dfa.alphabet, names.toArray(new String[count]), newId[dfa.startId], pruned, accepts,
+                n, n - reachableCount, Math.max(deadCount - 1, 0));
+    }
+
+}
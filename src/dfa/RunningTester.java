@@ -0,0 +1,522 @@
+package dfa;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunningTester {
+
+    /**
+     * A helper method that builds the DFA which accepts the binary numbers divisible by three,
+     * read from the most significant bit. State R0 is the start and only accept state
+     * @return the divisible by three DFA
+     */
+    public static DFA divisibleByThree(){
+        String[] statesArray = new String[] {"R0", "R1", "R2"};
+        List states = Arrays.asList(statesArray);
+
+        String[] acceptsArray = new String[] {"R0"};
+        List accepts = Arrays.asList(acceptsArray);
+
+        List<Transition> transitions = new ArrayList<Transition>();
+        transitions.add(new Transition("R0", "R0", 0));
+        transitions.add(new Transition("R0", "R1", 1));
+        transitions.add(new Transition("R1", "R2", 0));
+        transitions.add(new Transition("R1", "R0", 1));
+        transitions.add(new Transition("R2", "R1", 0));
+        transitions.add(new Transition("R2", "R2", 1));
+
+        return new DFA(states, "R0", accepts, transitions);
+    }
+
+    /**
+     * A helper method that builds a DFA over bytes which accepts the inputs that end with an ASCII
+     * digit. State N is the start state, and D, the only accept state, is entered after every digit
+     * @return the ends with a digit DFA
+     */
+    public static DFA endsWithDigit(){
+        DFA.Builder builder = new DFA.Builder(Alphabet.BYTES).state("N").state("D").start("N").accept("D");
+        for(int b = 0; b < 256; b++){
+            boolean digit = b >= '0' && b <= '9';
+            builder.transition("N", digit ? "D" : "N", b);
+            builder.transition("D", digit ? "D" : "N", b);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A helper method that builds a random complete binary DFA with states named Q0, Q1...
+     * @param random the source of randomness
+     * @param size the number of states
+     * @return a random DFA
+     */
+    public static DFA randomDFA(Random random, int size){
+        List<String> states = new ArrayList<String>();
+        List<String> accepts = new ArrayList<String>();
+        List<Transition> transitions = new ArrayList<Transition>();
+        for(int i = 0; i < size; i++){
+            states.add("Q" + i);
+            if(random.nextInt(3) == 0) accepts.add("Q" + i);
+            transitions.add(new Transition("Q" + i, "Q" + random.nextInt(size), 0));
+            transitions.add(new Transition("Q" + i, "Q" + random.nextInt(size), 1));
+        }
+        return new DFA(states, "Q0", accepts, transitions);
+    }
+
+    /**
+     * This test is to check that every accepts method agrees with the remainder of the input,
+     * read as a binary number, on random inputs of every bit length
+     */
+    @Test
+    public void testAcceptsAgreesOnEveryInputForm() throws IOException{
+        DFA DFA = divisibleByThree();
+        Random random = new Random(385);
+
+        for(int i = 0; i < 200; i++){
+            byte[] bytes = new byte[random.nextInt(20)];
+            random.nextBytes(bytes);
+            long bitLength = bytes.length == 0 ? 0 : random.nextInt(bytes.length * 8 + 1);
+
+            StringBuilder input = new StringBuilder();
+            BitSet bits = new BitSet();
+            for(int j = 0; j < bitLength; j++){
+                boolean one = ((bytes[j / 8] >>> (7 - j % 8)) & 1) == 1;
+                input.append(one ? '1' : '0');
+                if(one) bits.set(j);
+            }
+            boolean expected = input.length() == 0 || new BigInteger(input.toString(), 2).mod(BigInteger.valueOf(3)).signum() == 0;
+
+            assertEquals(expected, DFA.accepts(input.toString()));
+            assertEquals(expected, DFA.accepts(bits, (int) bitLength));
+            assertEquals(expected, DFA.accepts(bytes, bitLength));
+
+            boolean expectedWhole = bytes.length == 0 || new BigInteger(1, bytes).mod(BigInteger.valueOf(3)).signum() == 0;
+            assertEquals(expectedWhole, DFA.accepts(bytes));
+            assertEquals(expectedWhole, DFA.accepts(new ByteArrayInputStream(bytes)));
+        }
+    }
+
+    /**
+     * This test is to check that the batch method gives the same answer as running each input alone
+     */
+    @Test
+    public void testAcceptsAll(){
+        DFA DFA = divisibleByThree();
+        byte[][] inputs = new byte[][] {{0}, {3}, {4}, {(byte) 0xff}, {1, 2}, {}};
+        long[] bitLengths = new long[] {8, 8, 8, 8, 16, 0};
+
+        BitSet results = DFA.acceptsAll(inputs, bitLengths);
+        for(int i = 0; i < inputs.length; i++){
+            assertEquals(DFA.accepts(inputs[i], bitLengths[i]), results.get(i));
+        }
+        assertEquals(results, DFA.acceptsAll(inputs, null));
+        assertEquals(5, results.cardinality());
+    }
+
+    /**
+     * This test is to check that stepping a byte or a nibble at a time through the stride tables
+     * ends in the same state as stepping one bit at a time, from any bit offset
+     */
+    @Test
+    public void testStrideTableRun(){
+        Random random = new Random(4);
+        for(int i = 0; i < 50; i++){
+            DFA DFA = randomDFA(random, 1 + random.nextInt(12));
+            StrideTable table = new StrideTable(DFA);
+            byte[] bytes = new byte[random.nextInt(16) + 1];
+            random.nextBytes(bytes);
+            long toBit = random.nextInt(bytes.length * 8 + 1);
+            long fromBit = random.nextInt((int) toBit + 1);
+            int state = random.nextInt(DFA.stateCount());
+
+            assertEquals(DFA.run(state, bytes, fromBit, toBit), table.run(state, bytes, fromBit, toBit));
+            assertEquals(DFA.accepts(bytes), table.accepts(bytes));
+            assertEquals(DFA.accepts(bytes, toBit), table.accepts(bytes, toBit));
+        }
+    }
+
+    /**
+     * This test is to check that the shortest accepted prefix is found even when the
+     * DFA only passes through an accept state in the middle of a byte
+     */
+    @Test
+    public void testFirstAcceptingPrefix(){
+        Random random = new Random(8);
+        for(int i = 0; i < 50; i++){
+            DFA DFA = randomDFA(random, 1 + random.nextInt(12));
+            StrideTable table = new StrideTable(DFA);
+            byte[] bytes = new byte[random.nextInt(16) + 1];
+            random.nextBytes(bytes);
+            long bitLength = random.nextInt(bytes.length * 8 + 1);
+
+            long expected = -1;
+            for(long prefix = 0; prefix <= bitLength && expected < 0; prefix++){
+                if(DFA.accepts(bytes, prefix)) expected = prefix;
+            }
+            assertEquals(expected, table.firstAcceptingPrefix(bytes, bitLength));
+            assertEquals(expected >= 0, table.acceptsAnyPrefix(bytes, bitLength));
+        }
+    }
+
+    /**
+     * This test is to check that the parallel runner ends in the same state as a sequential run,
+     * both when every chunk runs from every state and when the chunks have to speculate
+     */
+    @Test
+    public void testParallelRunnerMatchesSequentialRun(){
+        Random random = new Random(16);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            for(int i = 0; i < 40; i++){
+                DFA DFA = randomDFA(random, 1 + random.nextInt(40));
+                byte[] bytes = new byte[random.nextInt(4000)];
+                random.nextBytes(bytes);
+                long bitLength = random.nextInt(bytes.length * 8 + 1);
+
+                ParallelRunner exact = new ParallelRunner(DFA, pool, 1 + random.nextInt(300), 8, 64);
+                ParallelRunner speculative = new ParallelRunner(DFA, pool, 1 + random.nextInt(300), random.nextInt(4), 2);
+
+                int expected = DFA.run(DFA.startId, bytes, 0, bitLength);
+                assertEquals(expected, exact.run(bytes, bitLength));
+                assertEquals(expected, speculative.run(bytes, bitLength));
+                assertEquals(DFA.accepts(bytes), exact.accepts(bytes));
+            }
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This test is to check that speculation keeps the states the input really passes through. The
+     * lowest 150 states loop on themselves and are never reached from the start, so they survive
+     * every look-behind, and a runner keeping the lowest ids would mispredict every chunk
+     */
+    @Test
+    public void testParallelRunnerSpeculatesOnFrequentStates(){
+        List<String> states = new ArrayList<String>();
+        List<Transition> transitions = new ArrayList<Transition>();
+        for(int i = 0; i < 150; i++){
+            states.add("U" + i);
+            transitions.add(new Transition("U" + i, "U" + i, 0));
+            transitions.add(new Transition("U" + i, "U" + i, 1));
+        }
+        for(int i = 0; i < 50; i++){
+            states.add("C" + i);
+            transitions.add(new Transition("C" + i, "C" + i, 0));
+            transitions.add(new Transition("C" + i, "C" + (i + 1) % 50, 1));
+        }
+        DFA counter = new DFA(states, "C0", Arrays.asList("C0"), transitions);
+        byte[] bytes = new byte[1 << 16];
+        new Random(64).nextBytes(bytes);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try{
+            ParallelRunner runner = new ParallelRunner(counter, pool, 4096, 8, 50);
+            assertEquals(counter.run(counter.startId, bytes, 0, bytes.length * 8L), runner.run(bytes, bytes.length * 8L));
+            assertEquals(0, runner.mispredictions.sum());
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This test is to check that scanning a file through small mapped segments gives the same
+     * acceptance and accepted offsets as running the DFA over every prefix of the bytes
+     */
+    @Test
+    public void testMappedScanner() throws IOException{
+        Random random = new Random(32);
+        Path file = Files.createTempFile("scanner", ".bin");
+        try{
+            for(int i = 0; i < 20; i++){
+                DFA DFA = randomDFA(random, 1 + random.nextInt(12));
+                byte[] bytes = new byte[random.nextInt(64)];
+                random.nextBytes(bytes);
+                Files.write(file, bytes);
+
+                List<Long> expectedOffsets = new ArrayList<Long>();
+                for(long prefix = 0; prefix <= bytes.length * 8L; prefix++){
+                    if(DFA.accepts(bytes, prefix)) expectedOffsets.add(prefix);
+                }
+
+                MappedScanner scanner = new MappedScanner(DFA, 1 + random.nextInt(10));
+                List<Long> offsets = new ArrayList<Long>();
+                MappedScanner.Result result = scanner.scan(file, offsets::add);
+
+                assertEquals(expectedOffsets, offsets);
+                assertEquals(offsets.size(), result.acceptCount);
+                assertEquals(DFA.accepts(bytes), result.accepted);
+                assertEquals(DFA.accepts(bytes), scanner.scan(file).accepted);
+                assertEquals(bytes.length * 2L, scanner.totalBytes.sum());
+            }
+        }finally{
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * This test is to check DFAs over bytes and over token alphabets, that the class table merges
+     * the symbols no state can tell apart, and that the bit-packed methods refuse other alphabets
+     */
+    @Test
+    public void testGeneralAlphabetAndClassTable(){
+        DFA endsWithDigit = endsWithDigit();
+        ClassTable table = new ClassTable(endsWithDigit);
+        assertEquals(2, table.classCount);
+        assertTrue(table.accepts("abc7".getBytes()));
+        assertFalse(table.accepts("7abc".getBytes()));
+        assertFalse(table.accepts(new byte[0]));
+        Random random = new Random(48);
+        for(int i = 0; i < 100; i++){
+            byte[] bytes = new byte[random.nextInt(8)];
+            random.nextBytes(bytes);
+            int[] symbols = new int[bytes.length];
+            for(int j = 0; j < bytes.length; j++) symbols[j] = bytes[j] & 0xFF;
+            assertEquals(endsWithDigit.accepts(symbols), table.accepts(bytes));
+            assertEquals(endsWithDigit.accepts(symbols), table.accepts(symbols));
+        }
+        assertThrows(IllegalArgumentException.class, () -> endsWithDigit.accepts("01"));
+        assertThrows(IllegalArgumentException.class, () -> new StrideTable(endsWithDigit));
+
+        // Counts the 7 tokens modulo 3 and ignores 100 and 42. C is a copy of A
+        Alphabet tokens = Alphabet.of(100, 7, 42);
+        DFA counter = new DFA.Builder(tokens)
+                .state("A").state("B").state("C").start("A").accept("A").accept("C")
+                .transition("A", "B", 7).transition("B", "C", 7).transition("C", "B", 7)
+                .transition("A", "A", 100).transition("B", "B", 100).transition("C", "C", 100)
+                .transition("A", "A", 42).transition("B", "B", 42).transition("C", "C", 42)
+                .build();
+        assertTrue(counter.accepts(new int[]{100, 7, 42, 7}));
+        assertFalse(counter.accepts(new int[]{7, 42}));
+        ClassTable tokenTable = new ClassTable(counter);
+        assertEquals(2, tokenTable.classCount);
+        assertEquals(tokenTable.classOfSymbol(100), tokenTable.classOfSymbol(42));
+        assertEquals(-1, tokenTable.classOfSymbol(5));
+
+        DFA minimized = counter.minimizeDFA(counter);
+        assertEquals(tokens, minimized.alphabet);
+        assertEquals(2, minimized.stateCount());
+        assertTrue(minimized.isEquivalent(counter));
+        assertArrayEquals(new int[]{7}, Equivalence.distinguishingSymbols(counter, new DFA.Builder(tokens)
+                .state("A").start("A").accept("A").transition("A", "A", 7).transition("A", "A", 100).transition("A", "A", 42)
+                .build()));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new DFA.Builder(tokens).state("A").start("A").transition("A", "A", 5);
+        });
+        assertEquals("The given list of transitions contains an illegal transition", exception.getMessage());
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new DFA.Builder(tokens).state("A").start("A").transition("A", "A", 7).build();
+        });
+        assertEquals("A given state does not have a transition on every symbol of the alphabet", exception.getMessage());
+    }
+
+    /**
+     * This test is to check that a lazy DFA agrees with the NFA it runs, for an NFA whose full DFA
+     * is too large for the cache, and that the cache counts its hits and flushes
+     */
+    @Test
+    public void testLazyDFA(){
+        // The tenth symbol from the end is 1. The full DFA has 1024 states
+        NFA nfa = new NFA().state("S0").start("S0").transition("S0", "S0", 0).transition("S0", "S0", 1);
+        for(int i = 1; i <= 10; i++){
+            nfa.state("S" + i);
+            nfa.transition("S" + (i - 1), "S" + i, 1);
+            if(i > 1) nfa.transition("S" + (i - 1), "S" + i, 0);
+        }
+        nfa.accept("S10");
+
+        LazyDFA lazy = new LazyDFA(nfa, 64);
+        Random random = new Random(18);
+        long symbols = 0;
+        for(int i = 0; i < 200; i++){
+            int[] input = new int[random.nextInt(40)];
+            for(int j = 0; j < input.length; j++) input[j] = random.nextInt(2);
+            symbols += input.length;
+            assertEquals(input.length >= 10 && input[input.length - 10] == 1, lazy.accepts(input));
+            assertTrue(lazy.stateCount() <= 64);
+        }
+        assertTrue(lazy.flushes() > 0);
+        assertEquals(symbols, lazy.hits() + lazy.misses());
+
+        // A small DFA fits in the cache, so once every transition has been followed they are all hits
+        LazyDFA small = new LazyDFA(new NFA().state("A").state("B").start("A").accept("B")
+                .transition("A", "B", 1).transition("B", "A", 1).transition("A", "A", 0).transition("B", "B", 0), 8);
+        assertFalse(small.accepts(new byte[]{1, 1, 0, 0, 1, 0, 1}));
+        long misses = small.misses();
+        assertEquals(4, misses);
+        assertTrue(small.accepts(new byte[]{1, 0, 0}));
+        assertEquals(misses, small.misses());
+        assertEquals(0, small.flushes());
+        assertTrue(small.hitRate() > 0.5);
+
+        assertThrows(IllegalArgumentException.class, () -> new LazyDFA(nfa, 1));
+    }
+
+    /**
+     * This test is to check that the multi-pattern matcher reports exactly the patterns that accept,
+     * in one pass, for byte patterns and for random binary DFAs, and that patterns that accept the
+     * same inputs do not add states
+     */
+    @Test
+    public void testMultiMatcher(){
+        DFA.Builder containsA = new DFA.Builder(Alphabet.BYTES).state("N").state("A").start("N").accept("A");
+        DFA.Builder evenLength = new DFA.Builder(Alphabet.BYTES).state("E").state("O").start("E").accept("E");
+        for(int b = 0; b < 256; b++){
+            containsA.transition("N", b == 'a' ? "A" : "N", b).transition("A", "A", b);
+            evenLength.transition("E", "O", b).transition("O", "E", b);
+        }
+        DFA[] patterns = {endsWithDigit(), containsA.build(), evenLength.build(), endsWithDigit()};
+        MultiMatcher matcher = new MultiMatcher(patterns);
+        assertEquals(4, matcher.patternCount);
+        assertEquals(8, matcher.stateCount());
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        expected.set(3);
+        assertEquals(expected, matcher.matchesSymbols("ba7".getBytes()));
+        expected.set(2);
+        assertEquals(expected, matcher.matchesSymbols("bad7".getBytes()));
+        int state = matcher.runSymbols(matcher.startId, "bad7".getBytes(), 0, 2);
+        assertEquals(matcher.matchesSymbols("bad7".getBytes()), matcher.labels(matcher.runSymbols(state, "bad7".getBytes(), 2, 4)));
+        assertThrows(IllegalArgumentException.class, () -> matcher.matches("bad7".getBytes()));
+
+        Random random = new Random(22);
+        for(int i = 0; i < 200; i++){
+            byte[] bytes = new byte[random.nextInt(6)];
+            for(int j = 0; j < bytes.length; j++) bytes[j] = (byte) "ab7x".charAt(random.nextInt(4));
+            BitSet matches = matcher.matchesSymbols(bytes);
+            int[] symbols = new int[bytes.length];
+            for(int j = 0; j < bytes.length; j++) symbols[j] = bytes[j];
+            assertEquals(matches, matcher.matches(symbols));
+            for(int p = 0; p < patterns.length; p++) assertEquals(patterns[p].accepts(symbols), matches.get(p));
+        }
+
+        DFA[] binary = new DFA[6];
+        for(int p = 0; p < binary.length; p++) binary[p] = randomDFA(random, 2 + random.nextInt(5));
+        MultiMatcher binaryMatcher = new MultiMatcher(binary);
+        for(int i = 0; i < 200; i++){
+            int[] input = new int[random.nextInt(10)];
+            for(int j = 0; j < input.length; j++) input[j] = random.nextInt(2);
+            BitSet matches = binaryMatcher.matches(input);
+            for(int p = 0; p < binary.length; p++) assertEquals(binary[p].accepts(input), matches.get(p));
+
+            byte[] bits = new byte[random.nextInt(6)];
+            random.nextBytes(bits);
+            BitSet packed = binaryMatcher.matches(bits);
+            for(int p = 0; p < binary.length; p++) assertEquals(binary[p].accepts(bits), packed.get(p));
+            long split = random.nextInt(bits.length * 8 + 1);
+            int middle = binaryMatcher.run(binaryMatcher.startId, bits, 0, split);
+            assertEquals(packed, binaryMatcher.labels(binaryMatcher.run(middle, bits, split, bits.length * 8L)));
+        }
+
+        DFA divisibleByThree = divisibleByThree();
+        assertEquals(3, new MultiMatcher(divisibleByThree, divisibleByThree.minimizeDFA(divisibleByThree)).stateCount());
+        assertThrows(IllegalArgumentException.class, () -> new MultiMatcher(divisibleByThree, endsWithDigit()));
+    }
+
+    /**
+     * This test is to check that stepping inputs through vector lanes gives the same results as
+     * acceptsAll, for groups that do not fill every lane and inputs of every length, including empty ones
+     */
+    @Test
+    public void testVectorRunner(){
+        Random random = new Random(23);
+        DFA divisibleByThree = divisibleByThree();
+        VectorRunner runner = new VectorRunner(divisibleByThree);
+        assertTrue(VectorRunner.lanes() >= 1);
+        for(int size: new int[]{0, 1, VectorRunner.lanes(), 3 * VectorRunner.lanes() + 1, 500}){
+            byte[][] inputs = new byte[size][];
+            long[] bitLengths = new long[size];
+            for(int i = 0; i < size; i++){
+                inputs[i] = new byte[random.nextInt(12)];
+                random.nextBytes(inputs[i]);
+                bitLengths[i] = random.nextInt(inputs[i].length * 8 + 1);
+            }
+            assertEquals(divisibleByThree.acceptsAll(inputs, bitLengths), runner.acceptsAll(inputs, bitLengths));
+            assertEquals(divisibleByThree.acceptsAll(inputs, null), runner.acceptsAll(inputs, null));
+        }
+
+        DFA large = randomDFA(random, 1000);
+        byte[][] inputs = new byte[100][];
+        for(int i = 0; i < inputs.length; i++){
+            inputs[i] = new byte[1 + random.nextInt(40)];
+            random.nextBytes(inputs[i]);
+        }
+        assertEquals(large.acceptsAll(inputs, null), new VectorRunner(large).acceptsAll(inputs, null));
+
+        assertThrows(IllegalArgumentException.class, () -> runner.acceptsAll(new byte[][]{{1}}, new long[]{9}));
+        assertThrows(IllegalArgumentException.class, () -> runner.acceptsAll(new byte[][]{{1}}, new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new VectorRunner(endsWithDigit()));
+    }
+
+    /**
+     * This test is to check that streams fed in fragments, as packed bits to a binary DFA and as byte
+     * symbols to a DFA over bytes, are accepted when the DFA accepts their whole input as one sequence
+     * of symbols, that closed slots are reused, and that closed slots cannot be fed
+     */
+    @Test
+    public void testStreamSessions(){
+        Random random = new Random(25);
+        DFA endsWithDigit = endsWithDigit();
+        for(DFA DFA: new DFA[] {randomDFA(random, 12), endsWithDigit}){
+            boolean binary = DFA.alphabet.isBinary();
+            StreamSessions sessions = new StreamSessions(DFA, 1);
+            int[] slots = new int[100];
+            byte[][] inputs = new byte[slots.length][];
+            int[] fed = new int[slots.length];
+            for(int s = 0; s < slots.length; s++){
+                slots[s] = sessions.open();
+                inputs[s] = new byte[random.nextInt(30)];
+                if(binary) random.nextBytes(inputs[s]);
+                else for(int i = 0; i < inputs[s].length; i++) inputs[s][i] = (byte) "ab12".charAt(random.nextInt(4));
+            }
+            assertEquals(100, sessions.openCount());
+            assertTrue(sessions.capacity() >= 100);
+
+            // Feed the streams interleaved, a random fragment at a time
+            for(boolean left = true; left; ){
+                left = false;
+                for(int s = 0; s < slots.length; s++){
+                    int len = Math.min(random.nextInt(5), inputs[s].length - fed[s]);
+                    if(binary) sessions.feed(slots[s], inputs[s], fed[s], len);
+                    else sessions.feedSymbols(slots[s], inputs[s], fed[s], len);
+                    fed[s] += len;
+                    left |= fed[s] < inputs[s].length;
+                }
+            }
+            for(int s = 0; s < slots.length; s++){
+                int[] symbols = new int[binary ? inputs[s].length * 8 : inputs[s].length];
+                for(int i = 0; i < symbols.length; i++) symbols[i] = binary ? (inputs[s][i / 8] >>> (7 - i % 8)) & 1 : inputs[s][i] & 0xFF;
+                assertEquals(DFA.accepts(symbols), sessions.isAccepting(slots[s]));
+            }
+        }
+
+        StreamSessions sessions = new StreamSessions(endsWithDigit, 4);
+        int[] slots = new int[8];
+        for(int s = 0; s < slots.length; s++) slots[s] = sessions.open();
+        sessions.close(slots[7]);
+        sessions.close(slots[3]);
+        assertEquals(6, sessions.openCount());
+        assertThrows(IllegalArgumentException.class, () -> sessions.feedSymbols(slots[3], new byte[1], 0, 1));
+        assertEquals(slots[3], sessions.open());
+        assertEquals(slots[7], sessions.open());
+        assertEquals(endsWithDigit.startId, sessions.state(slots[7]));
+        assertTrue(sessions.feedSymbols(slots[7], "x9".getBytes(), 0, 2));
+        assertFalse(sessions.feedSymbols(slots[7], "9x".getBytes(), 1, 1));
+        sessions.reset(slots[7]);
+        assertFalse(sessions.isAccepting(slots[7]));
+        assertThrows(IllegalArgumentException.class, () -> sessions.feedSymbols(slots[7], new byte[2], 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> sessions.feed(slots[7], "9".getBytes(), 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> sessions.state(100));
+    }
+
+}
@@ -0,0 +1,153 @@
+package dfa;
+
+import java.util.*;
+
+public class StreamSessions {
+    public final DFA dfa;
+    public final StrideTable strides;
+    public final ClassTable table;
+
+    // The current state of every open slot. A free slot holds -2 - (the next free slot), so -1 ends the free list
+    private int[] states;
+    private int used = 0;
+    private int freeHead = -1;
+    private int openCount = 0;
+
+    /**
+     * Keeps one DFA running over many streams whose input arrives in fragments, e.g. the packets of
+     * many connections. Each stream is a slot in one int array holding the state it has reached, so
+     * a stream costs 4 bytes and no object, and the slots of closed streams are reused through a free
+     * list threaded through the same array. Fragments of a binary DFA's input are fed as packed bits,
+     * a byte at a time through its stride table, and fragments of a DFA over bytes are fed through its
+     * symbol class table with every byte read as one symbol, and neither allocates anything.
+     * StreamSessions is not thread safe, so give each thread its own or guard it
+     * @param dfa the DFA to run, ideally minimized
+     * @param initialCapacity the number of slots to make room for, which grows as needed
+     */
+    public StreamSessions(DFA dfa, int initialCapacity){
+        if(initialCapacity < 1) throw new IllegalArgumentException("The initial capacity must be at least 1");
+        this.dfa = dfa;
+        this.strides = dfa.alphabet.isBinary() ? new StrideTable(dfa) : null;
+        this.table = new ClassTable(dfa);
+        this.states = new int[initialCapacity];
+    }
+
+    /**
+     * Opens a stream in the start state of the DFA
+     * @return the slot of the stream, which is the most recently closed slot if there is one
+     */
+    public int open(){
+        int slot;
+        if(this.freeHead >= 0){
+            slot = this.freeHead;
+            this.freeHead = -2 - this.states[slot];
+        }else{
+            if(this.used == this.states.length) this.states = Arrays.copyOf(this.states, this.states.length * 2);
+            slot = this.used++;
+        }
+        this.states[slot] = this.dfa.startId;
+        this.openCount++;
+        return slot;
+    }
+
+    /**
+     * Closes a stream, so its slot can be given to the next stream that is opened
+     * @param slot the slot of the stream
+     */
+    public void close(int slot){
+        checkOpen(slot);
+        this.states[slot] = -2 - this.freeHead;
+        this.freeHead = slot;
+        this.openCount--;
+    }
+
+    /**
+     * Runs a binary DFA over the next fragment of a stream, from the state the last fragment left it
+     * in. Every bit of the fragment is read, from the most significant bit of each byte to the least
+     * significant one, as DFA.accepts(byte[]) reads them
+     * @param slot the slot of the stream
+     * @param bits the bytes holding the packed bits of the fragment
+     * @param off the first byte of the fragment
+     * @param len the number of bytes in the fragment
+     * @return true if the DFA accepts everything the stream has been fed so far, false otherwise
+     */
+    public boolean feed(int slot, byte[] bits, int off, int len){
+        checkOpen(slot);
+        if(this.strides == null) throw new IllegalArgumentException("This method only works on DFAs over the binary alphabet");
+        if(off < 0 || len < 0 || len > bits.length - off) throw new IllegalArgumentException("The given range is outside of the given input");
+        int state = this.strides.run(this.states[slot], bits, (long) off * 8, (long) (off + len) * 8);
+        this.states[slot] = state;
+        return this.dfa.acceptBits.get(state);
+    }
+
+    /**
+     * Runs the DFA over the next fragment of a stream of symbols, from the state the last fragment
+     * left it in, reading every byte as one symbol from 0 to 255 like ClassTable.run. This is for
+     * DFAs over bytes, e.g. Alphabet.BYTES, and not for binary DFAs, which read packed bits through feed
+     * @param slot the slot of the stream
+     * @param symbols the bytes holding the fragment
+     * @param off the first byte of the fragment
+     * @param len the number of bytes in the fragment
+     * @return true if the DFA accepts everything the stream has been fed so far, false otherwise
+     */
+    public boolean feedSymbols(int slot, byte[] symbols, int off, int len){
+        checkOpen(slot);
+        if(off < 0 || len < 0 || len > symbols.length - off) throw new IllegalArgumentException("The given range is outside of the given input");
+        int state = this.table.run(this.states[slot], symbols, off, off + len);
+        this.states[slot] = state;
+        return this.dfa.acceptBits.get(state);
+    }
+
+    /**
+     * Puts a stream back in the start state, as if it had been fed nothing
+     * @param slot the slot of the stream
+     */
+    public void reset(int slot){
+        checkOpen(slot);
+        this.states[slot] = this.dfa.startId;
+    }
+
+    /**
+     * Gets the state a stream is in
+     * @param slot the slot of the stream
+     * @return the id of the state
+     */
+    public int state(int slot){
+        checkOpen(slot);
+        return this.states[slot];
+    }
+
+    /**
+     * Tests whether the DFA accepts everything a stream has been fed so far
+     * @param slot the slot of the stream
+     * @return true if the stream is in an accept state, false otherwise
+     */
+    public boolean isAccepting(int slot){
+        return this.dfa.acceptBits.get(state(slot));
+    }
+
+    /**
+     * Gets the number of open streams
+     * @return the number of open streams
+     */
+    public int openCount(){
+        return this.openCount;
+    }
+
+    /**
+     * Gets the number of slots there is room for before the array grows
+     * @return the capacity
+     */
+    public int capacity(){
+        return this.states.length;
+    }
+
+    /**
+     * Checks that a slot holds an open stream
+     * @param slot the slot
+     */
+    private void checkOpen(int slot){
+        if(slot < 0 || slot >= this.used || this.states[slot] < 0) throw new IllegalArgumentException("The given slot is not an open stream");
+    }
+
+}
@@ -0,0 +1,150 @@
+package dfa;
+
+public class StrideTable {
+    public final DFA dfa;
+    public final int[] stride4;
+    public final int[] stride8;
+    public final byte[] firstAccept4;
+    public final byte[] firstAccept8;
+
+    /**
+     * Precomputes multi-bit transition tables for a binary DFA so that a run can consume a whole
+     * nibble or byte per lookup instead of one bit. The table sizes grow with the number of states
+     * (256 ints per state for stride8), so this is meant to be built from a minimized DFA.
+     * stride8[q * 256 + b] is the state reached from q after reading the byte b, most significant bit
+     * first, and stride4[q * 16 + n] the same for a nibble. firstAccept8[q * 256 + b] is 0 if no
+     * accept state is entered while reading b from q, and otherwise the number of bits (1 to 8) read
+     * when an accept state is first entered. firstAccept4 is the same for nibbles
+     * @param dfa the DFA to build the tables for, ideally minimized
+     */
+    public StrideTable(DFA dfa){
+        dfa.requireBinary();
+        int n = dfa.stateCount();
+        if((long) n * 256 > Integer.MAX_VALUE) throw new IllegalArgumentException("The given DFA has too many states for a stride table");
+        this.dfa = dfa;
+        this.stride4 = new int[n * 16];
+        this.firstAccept4 = new byte[n * 16];
+        this.stride8 = new int[n * 256];
+        this.firstAccept8 = new byte[n * 256];
+
+        for(int q = 0; q < n; q++){
+            for(int nibble = 0; nibble < 16; nibble++){
+                int state = q;
+                int first = 0;
+                for(int shift = 3; shift >= 0; shift--){
+                    state = dfa.delta[state * DFA.ALPHABET_SIZE + ((nibble >>> shift) & 1)];
+                    if(first == 0 && dfa.acceptBits.get(state)) first = 4 - shift;
+                }
+                this.stride4[q * 16 + nibble] = state;
+                this.firstAccept4[q * 16 + nibble] = (byte) first;
+            }
+        }
+
+        // A byte is its high nibble followed by its low nibble
+        for(int q = 0; q < n; q++){
+            for(int high = 0; high < 16; high++){
+                int middle = this.stride4[q * 16 + high];
+                int firstHigh = this.firstAccept4[q * 16 + high];
+                for(int low = 0; low < 16; low++){
+                    int firstLow = this.firstAccept4[middle * 16 + low];
+                    this.stride8[q * 256 + (high << 4 | low)] = this.stride4[middle * 16 + low];
+                    this.firstAccept8[q * 256 + (high << 4 | low)] = (byte) (firstHigh != 0 ? firstHigh : firstLow != 0 ? 4 + firstLow : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the DFA over every bit of a byte array, one byte per lookup
+     * @param bits the packed input bits, most significant bit first
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits){
+        return this.dfa.acceptBits.get(run(this.dfa.startId, bits, 0, (long) bits.length * 8));
+    }
+
+    /**
+     * Runs the DFA over the first bitLength bits of a byte array
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return true if the DFA ends in an accept state, false otherwise
+     */
+    public boolean accepts(byte[] bits, long bitLength){
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        return this.dfa.acceptBits.get(run(this.dfa.startId, bits, 0, bitLength));
+    }
+
+    /**
+     * Steps the DFA from the given state over the bits fromBit (inclusive) to toBit (exclusive).
+     * Whole bytes go through stride8, a trailing nibble through stride4, and any other bits one at a time
+     * @param state the state to start from
+     * @param bits the packed input bits, most significant bit first
+     * @param fromBit the first bit to read
+     * @param toBit the bit to stop at
+     * @return the state the DFA is in after reading the bits
+     */
+    public int run(int state, byte[] bits, long fromBit, long toBit){
+        final int[] delta = this.dfa.delta;
+        final int[] stride8 = this.stride8;
+        long bit = fromBit;
+        while(bit < toBit && (bit & 7) != 0){
+            state = delta[state * DFA.ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+            bit++;
+        }
+        int fullEnd = (int) (toBit >>> 3);
+        for(int i = (int) (bit >>> 3); i < fullEnd; i++){
+            state = stride8[(state << 8) | (bits[i] & 0xff)];
+        }
+        bit = Math.max(bit, (long) fullEnd << 3);
+        if(toBit - bit >= 4){
+            state = this.stride4[(state << 4) | ((bits[(int) (bit >>> 3)] >>> 4) & 0xf)];
+            bit += 4;
+        }
+        while(bit < toBit){
+            state = delta[state * DFA.ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+            bit++;
+        }
+        return state;
+    }
+
+    /**
+     * Finds the shortest prefix of the input that the DFA accepts, including acceptance that is only
+     * reached in the middle of a byte. Whole bytes still take one lookup each, plus one lookup in
+     * firstAccept8 to see if an accept state was entered somewhere inside the byte
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return the length in bits of the shortest accepted prefix, 0 if the start state accepts, or -1 if no prefix is accepted
+     */
+    public long firstAcceptingPrefix(byte[] bits, long bitLength){
+        if(bitLength < 0 || bitLength > (long) bits.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+        final int[] stride8 = this.stride8;
+        final byte[] firstAccept8 = this.firstAccept8;
+        int state = this.dfa.startId;
+        if(this.dfa.acceptBits.get(state)) return 0;
+
+        int fullEnd = (int) (bitLength >>> 3);
+        for(int i = 0; i < fullEnd; i++){
+            int index = (state << 8) | (bits[i] & 0xff);
+            int first = firstAccept8[index];
+            if(first != 0) return (long) i * 8 + first;
+            state = stride8[index];
+        }
+        for(long bit = (long) fullEnd << 3; bit < bitLength; bit++){
+            state = this.dfa.delta[state * DFA.ALPHABET_SIZE + ((bits[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1)];
+            if(this.dfa.acceptBits.get(state)) return bit + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Tests whether the DFA enters an accept state anywhere while reading the input, even if the
+     * input ends in a reject state, or the accept state is only entered in the middle of a byte
+     * @param bits the packed input bits, most significant bit first
+     * @param bitLength the number of bits to read
+     * @return true if some prefix of the input is accepted, false otherwise
+     */
+    public boolean acceptsAnyPrefix(byte[] bits, long bitLength){
+        return firstAcceptingPrefix(bits, bitLength) >= 0;
+    }
+
+}
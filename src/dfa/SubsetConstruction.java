@@ -0,0 +1,320 @@
+package dfa;
+
+import java.util.*;
+
+public class SubsetConstruction {
+
+    /**
+     * How the DFA made by the subset construction is minimized
+     * NONE: the subset DFA is returned as it is, with every state named by the set of NFA states it
+     * stands for, e.g. {A,B}, and the empty set as the sink
+     * HOPCROFT: the subset tables are minimized with Hopcroft's algorithm before any DFA is built
+     * BRZOZOWSKI: the NFA is reversed and determinized, and the result is reversed and determinized
+     * again, which is minimal without any partition refinement
+     * Both minimizations name the states Q0, Q1... in breadth first order, so they give the same DFA
+     */
+    public enum Minimization { NONE, HOPCROFT, BRZOZOWSKI }
+
+    /**
+     * Turns an NFA into a DFA. Sets of NFA states are BitSets, and they are hash-consed to the ids of
+     * the DFA states in one map, so each set is only explored once. Sets are explored from a worklist
+     * in the order they are found, and their transitions go straight into a flat transition table.
+     * NFA states that cannot reach an accept state are left out of every set, so all the sets that
+     * can no longer accept collapse into the empty set while the DFA is built
+     * @param nfa the NFA
+     * @param minimization whether and how to minimize
+     * @return the DFA
+     */
+    public static DFA determinize(NFA nfa, Minimization minimization){
+        Automaton automaton = nfa.automaton();
+        final int k = nfa.alphabet.size;
+        switch(minimization){
+            case HOPCROFT: {
+                Subsets subsets = subsets(automaton);
+                return CanonicalForm.minimal(nfa.alphabet, subsets.count, subsets.delta, subsets.accepts, 0);
+            }
+            case BRZOZOWSKI: {
+                Subsets reversed = subsets(automaton.reverse());
+                BitSet start = new BitSet();
+                start.set(0);
+                Automaton back = new Automaton(reversed.count, k, reversed.delta, reversed.accepts, start).reverse();
+                Subsets minimal = subsets(back);
+                return build(nfa.alphabet, numberedNames(minimal.count), minimal.delta, minimal.accepts);
+            }
+            default: {
+                Subsets subsets = subsets(automaton);
+                String[] nfaNames = nfa.stateNames();
+                String[] names = new String[subsets.count];
+                for(int q = 0; q < subsets.count; q++){
+                    StringJoiner name = new StringJoiner(",", "{", "}");
+                    BitSet set = subsets.sets.get(q);
+                    for(int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) name.add(nfaNames[s]);
+                    names[q] = name.toString();
+                }
+                return build(nfa.alphabet, names, subsets.delta, subsets.accepts);
+            }
+        }
+    }
+
+    /**
+     * The subset construction on int-indexed automata
+     * @param automaton the automaton to determinize
+     * @return the subset DFA, whose start state is 0 and whose states are numbered in the order they were found
+     */
+    static Subsets subsets(Automaton automaton){
+        final int k = automaton.alphabetSize;
+        BitSet live = automaton.coaccessible();
+        Map<BitSet,Integer> table = new HashMap<BitSet,Integer>();
+        List<BitSet> sets = new ArrayList<BitSet>();
+        int[] delta = new int[16 * k];
+
+        BitSet start = automaton.closure(automaton.starts);
+        start.and(live);
+        table.put(start, 0);
+        sets.add(start);
+        for(int head = 0; head < sets.size(); head++){
+            BitSet set = sets.get(head);
+            if((head + 1) * k > delta.length) delta = Arrays.copyOf(delta, delta.length * 2);
+            for(int a = 0; a < k; a++){
+                BitSet next = automaton.step(set, a);
+                next.and(live);
+                Integer id = table.get(next);
+                if(id == null){
+                    id = sets.size();
+                    table.put(next, id);
+                    sets.add(next);
+                }
+                delta[head * k + a] = id;
+            }
+        }
+
+        int count = sets.size();
+        BitSet accepts = new BitSet(count);
+        for(int q = 0; q < count; q++){
+            if(sets.get(q).intersects(automaton.accepts)) accepts.set(q);
+        }
+        return new Subsets(count, Arrays.copyOf(delta, count * k), accepts, sets);
+    }
+
+    /**
+     * Builds a DFA whose start state is state 0 from compact tables
+     * @param alphabet the alphabet
+     * @param names the names of the states
+     * @param delta the flat transition table
+     * @param accepts the accept states
+     * @return the DFA
+     */
+    private static DFA build(Alphabet alphabet, String[] names, int[] delta, BitSet accepts){
+        final int k = alphabet.size;
+        DFA.Builder builder = new DFA.Builder(alphabet);
+        for(String name: names) builder.state(name);
+        builder.start(names[0]);
+        for(int q = 0; q < names.length; q++){
+            if(accepts.get(q)) builder.accept(names[q]);
+            for(int a = 0; a < k; a++) builder.transition(names[q], names[delta[q * k + a]], alphabet.symbol(a));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The names Q0, Q1...
+     * @param count the number of names
+     * @return the names
+     */
+    private static String[] numberedNames(int count){
+        String[] names = new String[count];
+        for(int q = 0; q < count; q++) names[q] = "Q" + q;
+        return names;
+    }
+
+    /**
+     * The DFA made by the subset construction, as compact tables, and the set of NFA states behind every state
+     */
+    static final class Subsets {
+        final int count;
+        final int[] delta;
+        final BitSet accepts;
+        final List<BitSet> sets;
+
+        Subsets(int count, int[] delta, BitSet accepts, List<BitSet> sets){
+            this.count = count;
+            this.delta = delta;
+            this.accepts = accepts;
+            this.sets = sets;
+        }
+    }
+
+    /**
+     * An int-indexed NFA. The targets of state q on column a are targets[offsets[q * (k + 1) + a]]
+     * up to the next offset, and column k holds the epsilon transitions
+     */
+    static final class Automaton {
+        final int stateCount;
+        final int alphabetSize;
+        final int[] offsets;
+        final int[] targets;
+        final BitSet starts;
+        final BitSet accepts;
+
+        private final int[] edgeFrom;
+        private final int[] edgeTo;
+        private final int[] edgeColumn;
+
+        /**
+         * Groups a list of edges by state and column
+         * @param stateCount the number of states
+         * @param alphabetSize the number of symbols
+         * @param edgeCount the number of edges
+         * @param edgeFrom the state each edge leaves
+         * @param edgeTo the state each edge goes to
+         * @param edgeColumn the column of each edge, or -1 for epsilon
+         * @param starts the start states
+         * @param accepts the accept states
+         */
+        Automaton(int stateCount, int alphabetSize, int edgeCount, int[] edgeFrom, int[] edgeTo, int[] edgeColumn, BitSet starts, BitSet accepts){
+            final int width = alphabetSize + 1;
+            this.stateCount = stateCount;
+            this.alphabetSize = alphabetSize;
+            this.starts = starts;
+            this.accepts = accepts;
+            this.edgeFrom = Arrays.copyOf(edgeFrom, edgeCount);
+            this.edgeTo = Arrays.copyOf(edgeTo, edgeCount);
+            this.edgeColumn = Arrays.copyOf(edgeColumn, edgeCount);
+            this.offsets = new int[stateCount * width + 1];
+            for(int e = 0; e < edgeCount; e++) this.offsets[slot(e, width) + 1]++;
+            for(int i = 0; i < stateCount * width; i++) this.offsets[i + 1] += this.offsets[i];
+            this.targets = new int[edgeCount];
+            int[] fill = new int[stateCount * width];
+            for(int e = 0; e < edgeCount; e++){
+                int slot = slot(e, width);
+                this.targets[this.offsets[slot] + fill[slot]++] = this.edgeTo[e];
+            }
+        }
+
+        /**
+         * Views a DFA given as compact tables as an automaton
+         * @param stateCount the number of states
+         * @param alphabetSize the number of symbols
+         * @param delta the flat transition table
+         * @param accepts the accept states
+         * @param starts the start states
+         */
+        Automaton(int stateCount, int alphabetSize, int[] delta, BitSet accepts, BitSet starts){
+            this(stateCount, alphabetSize, stateCount * alphabetSize, sources(stateCount, alphabetSize), delta, columns(stateCount, alphabetSize), starts, accepts);
+        }
+
+        /**
+         * The automaton with every edge turned around and the start and accept states swapped,
+         * which accepts the reverse of every input 'this' one accepts
+         * @return the reversed automaton
+         */
+        Automaton reverse(){
+            return new Automaton(this.stateCount, this.alphabetSize, this.edgeFrom.length, this.edgeTo, this.edgeFrom, this.edgeColumn, this.accepts, this.starts);
+        }
+
+        /**
+         * Adds every state that can be reached through epsilon transitions to a set
+         * @param set the set of states
+         * @return a new set with the closure
+         */
+        BitSet closure(BitSet set){
+            final int width = this.alphabetSize + 1;
+            BitSet closed = (BitSet) set.clone();
+            int[] stack = new int[Math.max(closed.cardinality(), 16)];
+            int top = 0;
+            for(int q = closed.nextSetBit(0); q >= 0; q = closed.nextSetBit(q + 1)){
+                if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                stack[top++] = q;
+            }
+            while(top > 0){
+                int q = stack[--top];
+                int slot = q * width + this.alphabetSize;
+                for(int i = this.offsets[slot]; i < this.offsets[slot + 1]; i++){
+                    int t = this.targets[i];
+                    if(closed.get(t)) continue;
+                    closed.set(t);
+                    if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = t;
+                }
+            }
+            return closed;
+        }
+
+        /**
+         * The set of states reached from a set of states on one symbol, closed under epsilon transitions
+         * @param set the set of states
+         * @param column the column of the symbol
+         * @return a new set with the states reached
+         */
+        BitSet step(BitSet set, int column){
+            final int width = this.alphabetSize + 1;
+            BitSet next = new BitSet(this.stateCount);
+            for(int q = set.nextSetBit(0); q >= 0; q = set.nextSetBit(q + 1)){
+                int slot = q * width + column;
+                for(int i = this.offsets[slot]; i < this.offsets[slot + 1]; i++) next.set(this.targets[i]);
+            }
+            return closure(next);
+        }
+
+        /**
+         * Finds the states that can reach an accept state, following every edge backwards
+         * @return the set of those states
+         */
+        BitSet coaccessible(){
+            int[] predStart = new int[this.stateCount + 1];
+            for(int e = 0; e < this.edgeTo.length; e++) predStart[this.edgeTo[e] + 1]++;
+            for(int q = 0; q < this.stateCount; q++) predStart[q + 1] += predStart[q];
+            int[] preds = new int[this.edgeTo.length];
+            int[] fill = new int[this.stateCount];
+            for(int e = 0; e < this.edgeTo.length; e++) preds[predStart[this.edgeTo[e]] + fill[this.edgeTo[e]]++] = this.edgeFrom[e];
+
+            BitSet live = (BitSet) this.accepts.clone();
+            int[] queue = new int[this.stateCount];
+            int tail = 0;
+            for(int q = live.nextSetBit(0); q >= 0; q = live.nextSetBit(q + 1)) queue[tail++] = q;
+            for(int head = 0; head < tail; head++){
+                for(int i = predStart[queue[head]]; i < predStart[queue[head] + 1]; i++){
+                    if(live.get(preds[i])) continue;
+                    live.set(preds[i]);
+                    queue[tail++] = preds[i];
+                }
+            }
+            return live;
+        }
+
+        /**
+         * The offset slot of an edge
+         * @param e the edge
+         * @param width the number of columns, including epsilon
+         * @return the slot
+         */
+        private int slot(int e, int width){
+            return this.edgeFrom[e] * width + (this.edgeColumn[e] < 0 ? this.alphabetSize : this.edgeColumn[e]);
+        }
+
+        /**
+         * The source of every transition of a DFA, in table order
+         * @param stateCount the number of states
+         * @param alphabetSize the number of symbols
+         * @return the sources
+         */
+        private static int[] sources(int stateCount, int alphabetSize){
+            int[] sources = new int[stateCount * alphabetSize];
+            for(int i = 0; i < sources.length; i++) sources[i] = i / alphabetSize;
+            return sources;
+        }
+
+        /**
+         * The column of every transition of a DFA, in table order
+         * @param stateCount the number of states
+         * @param alphabetSize the number of symbols
+         * @return the columns
+         */
+        private static int[] columns(int stateCount, int alphabetSize){
+            int[] columns = new int[stateCount * alphabetSize];
+            for(int i = 0; i < columns.length; i++) columns[i] = i % alphabetSize;
+            return columns;
+        }
+    }
+
+}
@@ -1,3 +1,5 @@
+package dfa;
+
 public class Transition<start, end, value> {
     public final String start; 
     public final String end;
@@ -7,7 +9,7 @@ public class Transition<start, end, value> {
      * A tuple that denotes a transition for a DFA
      * @param start the start state
      * @param end the end state
-     * @param value the binary value of the transition
+     * @param value the symbol of the transition, 0 or 1 for a binary DFA
      */
     public Transition(String start, String end, int value) { 
       this.start = start;
@@ -24,6 +26,26 @@ public class Transition<start, end, value> {
         return this.start.equals(t.start) && this.end.equals(t.end) && this.value == t.value;
     }
 
+    /**
+     * Tests if 'this' Transition is equal to the parameter object, so that sets and maps of
+     * Transitions compare them by value
+     * @param o the object to test against
+     * @return true if the object is a Transition with the same start, end and value, false otherwise
+     */
+    @Override
+    public boolean equals(Object o){
+        return o instanceof Transition && equals((Transition) o);
+    }
+
+    /**
+     * Returns a hash code that agrees with equals, so that a HashSet of Transitions removes duplicates
+     * @return a hash of the start, end and value
+     */
+    @Override
+    public int hashCode(){
+        return (this.start.hashCode() * 31 + this.end.hashCode()) * 31 + this.value;
+    }
+
     /**
      * Returns a String that is representative of 'this' Transition
      * @return a String that is representative of 'this' Transition
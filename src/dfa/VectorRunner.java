@@ -0,0 +1,94 @@
+package dfa;
+
+import jdk.incubator.vector.*;
+
+import java.util.*;
+
+public class VectorRunner {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    public final DFA dfa;
+    public final StrideTable table;
+
+    /**
+     * Runs many short inputs through one binary DFA at once, one input per lane of an int vector,
+     * stepping every lane a byte at a time by gathering the next states from the stride table of the
+     * DFA. The Vector API is an incubator module in JDK 17, so it must be added with --add-modules
+     * jdk.incubator.vector both when compiling and when running
+     * @param dfa the binary DFA to run, whose stride table takes 256 ints per state
+     */
+    public VectorRunner(DFA dfa){
+        dfa.requireBinary();
+        this.dfa = dfa;
+        this.table = new StrideTable(dfa);
+    }
+
+    /**
+     * The number of inputs that are stepped together
+     * @return the number of int lanes in the preferred vector size of this machine
+     */
+    public static int lanes(){
+        return SPECIES.length();
+    }
+
+    /**
+     * Runs the DFA over many inputs, with the same inputs, order of bits and results as DFA.acceptsAll.
+     * Inputs are taken a vector of lanes at a time, so the work for each group is as long as its
+     * longest input, and inputs of similar lengths are best kept next to each other
+     * @param inputs the packed input bits of every input
+     * @param bitLengths the number of bits to read from each input, or null to read all of them
+     * @return a BitSet with bit i set if input i is accepted
+     */
+    public BitSet acceptsAll(byte[][] inputs, long[] bitLengths){
+        if(bitLengths != null && bitLengths.length != inputs.length) throw new IllegalArgumentException("There must be one bit length for every input");
+        final int lanes = SPECIES.length();
+        final int[] stride8 = this.table.stride8;
+        BitSet results = new BitSet(inputs.length);
+        int[] byteCounts = new int[lanes];
+        long[] lengths = new long[lanes];
+        int[] indexes = new int[lanes];
+        int[] states = new int[lanes];
+        int[] columns = new int[0];
+
+        for(int base = 0; base < inputs.length; base += lanes){
+            int count = Math.min(lanes, inputs.length - base);
+            int maxBytes = 0;
+            Arrays.fill(byteCounts, 0);
+            for(int lane = 0; lane < count; lane++){
+                byte[] input = inputs[base + lane];
+                long bitLength = bitLengths == null ? (long) input.length * 8 : bitLengths[base + lane];
+                if(bitLength < 0 || bitLength > (long) input.length * 8) throw new IllegalArgumentException("The given bit length is outside of the given input");
+                lengths[lane] = bitLength;
+                byteCounts[lane] = (int) (bitLength >>> 3);
+                maxBytes = Math.max(maxBytes, byteCounts[lane]);
+            }
+
+            // Transpose the whole bytes of the group, so byte i of every lane is one vector load
+            if(columns.length < maxBytes * lanes) columns = new int[maxBytes * lanes];
+            for(int lane = 0; lane < lanes; lane++){
+                byte[] input = lane < count ? inputs[base + lane] : null;
+                for(int i = 0; i < maxBytes; i++) columns[i * lanes + lane] = i < byteCounts[lane] ? input[i] & 0xFF : 0;
+            }
+
+            IntVector byteCount = IntVector.fromArray(SPECIES, byteCounts, 0);
+            IntVector state = IntVector.broadcast(SPECIES, this.dfa.startId);
+            for(int i = 0; i < maxBytes; i++){
+                // The masked gather of JDK 17 is not compiled to a vector instruction, so every lane
+                // gathers, and a lane whose bytes have ended reads byte 0 and keeps its old state
+                VectorMask<Integer> running = byteCount.compare(VectorOperators.GT, i);
+                IntVector column = IntVector.fromArray(SPECIES, columns, i * lanes);
+                state.lanewise(VectorOperators.LSHL, 8).or(column).intoArray(indexes, 0);
+                IntVector next = IntVector.fromArray(SPECIES, stride8, 0, indexes, 0);
+                state = state.blend(next, running);
+            }
+            state.intoArray(states, 0);
+            for(int lane = 0; lane < count; lane++){
+                int last = states[lane];
+                if((lengths[lane] & 7) != 0) last = this.table.run(last, inputs[base + lane], (long) byteCounts[lane] * 8, lengths[lane]);
+                if(this.dfa.acceptBits.get(last)) results.set(base + lane);
+            }
+        }
+        return results;
+    }
+
+}